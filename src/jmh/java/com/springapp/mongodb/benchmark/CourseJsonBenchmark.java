@@ -0,0 +1,79 @@
+package com.springapp.mongodb.benchmark;
+
+import com.springapp.mongodb.model.Course;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson 3 (de)serialization of a single course and of a page of courses, as done by the MVC message converter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseJsonBenchmark {
+
+    @Param({"100"})
+    int pageSize;
+
+    private ObjectWriter courseWriter;
+    private ObjectReader courseReader;
+    private ObjectWriter pageWriter;
+    private ObjectReader pageReader;
+
+    private Course course;
+    private List<Course> page;
+    private byte[] courseJson;
+    private byte[] pageJson;
+
+    @Setup
+    public void setUp() {
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+        courseWriter = jsonMapper.writerFor(Course.class);
+        courseReader = jsonMapper.readerFor(Course.class);
+        pageWriter = jsonMapper.writerFor(jsonMapper.getTypeFactory().constructCollectionType(List.class, Course.class));
+        pageReader = jsonMapper.readerForListOf(Course.class);
+
+        course = Courses.course(1);
+        page = Courses.courses(pageSize);
+        courseJson = courseWriter.writeValueAsBytes(course);
+        pageJson = pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] writeCourse() {
+        return courseWriter.writeValueAsBytes(course);
+    }
+
+    @Benchmark
+    public Course readCourse() {
+        return courseReader.readValue(courseJson);
+    }
+
+    @Benchmark
+    public byte[] writePage() {
+        return pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public List<Course> readPage() {
+        return pageReader.readValue(pageJson);
+    }
+}
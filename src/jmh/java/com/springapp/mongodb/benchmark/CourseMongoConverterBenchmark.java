@@ -0,0 +1,118 @@
+package com.springapp.mongodb.benchmark;
+
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.repository.CourseCodec;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spring Data's mapping between {@link Course} and BSON. The {@code convert} benchmarks cover the
+ * {@link MappingMongoConverter} alone; the {@code encode}/{@code decode} ones add the driver's BSON codec,
+ * which is the full cost of a document on the wire. The {@code WithCodec} ones do the same work with
+ * {@link CourseCodec}, which the repository reads use only when {@code courses.mongo.course-codec.enabled} is true.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseMongoConverterBenchmark {
+
+    private final DocumentCodec codec = new DocumentCodec();
+    private final CourseCodec courseCodec = new CourseCodec();
+
+    private MappingMongoConverter converter;
+    private Course course;
+    private Document document;
+    private byte[] bson;
+
+    @Setup
+    public void setUp() {
+        var conversions = new MongoCustomConversions(List.of());
+        var mappingContext = new MongoMappingContext();
+        mappingContext.setInitialEntitySet(Set.of(Course.class));
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        course = Courses.course(1);
+        document = convertCourse();
+        bson = encode(document);
+    }
+
+    @Benchmark
+    public Document convertCourse() {
+        var target = new Document();
+        converter.write(course, target);
+        return target;
+    }
+
+    @Benchmark
+    public Course convertDocument() {
+        return converter.read(Course.class, document);
+    }
+
+    @Benchmark
+    public byte[] encodeCourse() {
+        return encode(convertCourse());
+    }
+
+    @Benchmark
+    public Course decodeCourse() {
+        try (var reader = new BsonBinaryReader(ByteBuffer.wrap(bson))) {
+            return converter.read(Course.class, codec.decode(reader, DecoderContext.builder().build()));
+        }
+    }
+
+    @Benchmark
+    public byte[] encodeCourseWithCodec() {
+        var buffer = new BasicOutputBuffer();
+        try (var writer = new BsonBinaryWriter(buffer)) {
+            courseCodec.encode(writer, course, EncoderContext.builder().build());
+        }
+        return buffer.toByteArray();
+    }
+
+    @Benchmark
+    public Course decodeCourseWithCodec() {
+        try (var reader = new BsonBinaryReader(ByteBuffer.wrap(bson))) {
+            return courseCodec.decode(reader, DecoderContext.builder().build());
+        }
+    }
+
+    private byte[] encode(Document source) {
+        var buffer = new BasicOutputBuffer();
+        try (var writer = new BsonBinaryWriter(buffer)) {
+            codec.encode(writer, source, EncoderContext.builder().build());
+        }
+        return buffer.toByteArray();
+    }
+}
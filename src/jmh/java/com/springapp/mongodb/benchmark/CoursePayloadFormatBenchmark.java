@@ -0,0 +1,72 @@
+package com.springapp.mongodb.benchmark;
+
+import com.springapp.mongodb.model.Course;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes a page of courses as JSON and as CBOR, the two formats {@code GET /api/courses} negotiates.
+ * The encoded size of each page is reported as {@code payload.size} by {@link PayloadSizeProfiler}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CoursePayloadFormatBenchmark {
+
+    @Param({"json", "cbor"})
+    String format;
+
+    @Param({"10", "100", "1000"})
+    int pageSize;
+
+    private ObjectWriter pageWriter;
+    private ObjectReader pageReader;
+    private List<Course> page;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp(BenchmarkParams benchmark) {
+        ObjectMapper mapper = switch (format) {
+            case "json" -> JsonMapper.builder().build();
+            case "cbor" -> CBORMapper.builder().build();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        pageWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, Course.class));
+        pageReader = mapper.readerForListOf(Course.class);
+
+        page = Courses.courses(pageSize);
+        encoded = pageWriter.writeValueAsBytes(page);
+        PayloadSizeProfiler.record(benchmark, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encodePage() {
+        return pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public List<Course> decodePage() {
+        return pageReader.readValue(encoded);
+    }
+}
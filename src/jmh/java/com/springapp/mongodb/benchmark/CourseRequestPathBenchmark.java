@@ -0,0 +1,112 @@
+package com.springapp.mongodb.benchmark;
+
+import com.springapp.mongodb.catalog.CourseCatalog;
+import com.springapp.mongodb.controller.BulkCourseReaders;
+import com.springapp.mongodb.controller.CourseController;
+import com.springapp.mongodb.job.CourseJobs;
+import com.springapp.mongodb.job.JobService;
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.repository.InMemoryCourseRepository;
+import com.springapp.mongodb.search.CourseTitleIndex;
+import com.springapp.mongodb.service.CourseCreateBatcher;
+import com.springapp.mongodb.service.CourseServiceImpl;
+import com.springapp.mongodb.service.SingleFlight;
+import com.springapp.mongodb.stats.CourseStatistics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CourseController} → {@link CourseServiceImpl} → repository, followed by JSON serialization of the response
+ * body, with MongoDB replaced by the {@link InMemoryCourseRepository} the {@code inmemory} profile runs on. What is
+ * left is the framework-free cost of our own request handling; the Spring proxies (cache, observation) and the servlet
+ * container are not included.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseRequestPathBenchmark {
+
+    @Param({"10000"})
+    int catalogSize;
+
+    @Param({"100"})
+    int pageSize;
+
+    private CourseController controller;
+    private JsonMapper jsonMapper;
+    private String id;
+
+    @Setup
+    public void setUp() {
+        List<Course> courses = Courses.courses(catalogSize);
+        var repository = new InMemoryCourseRepository();
+        repository.insert(courses);
+
+        jsonMapper = JsonMapper.builder().build();
+        var titleIndex = new CourseTitleIndex(repository, new SyncTaskExecutor());
+        // Never started, so nothing is scheduled: writes only drop the (absent) snapshot
+        var scheduler = new SimpleAsyncTaskScheduler();
+        var catalog = new CourseCatalog(repository, scheduler, jsonMapper);
+        var singleFlight = new SingleFlight(new SimpleMeterRegistry());
+        var service = new CourseServiceImpl(repository, titleIndex, catalog,
+                new CourseCreateBatcher(repository, new SimpleMeterRegistry(), Tracer.NOOP, new SyncTaskExecutor()),
+                singleFlight, new CourseStatistics(repository, singleFlight, scheduler));
+        // Values that @Value would inject from application.properties
+        ReflectionTestUtils.setField(singleFlight, "enabled", true);
+        ReflectionTestUtils.setField(singleFlight, "followerTimeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(service, "defaultPageLimit", pageSize);
+        ReflectionTestUtils.setField(service, "maxPageLimit", 1000);
+
+        controller = new CourseController(service, catalog,
+                new CourseJobs(service, titleIndex, new JobService(new SyncTaskExecutor())),
+                jsonMapper, new BulkCourseReaders(jsonMapper, CBORMapper.builder().build()));
+        id = courses.get(catalogSize / 2).getId();
+
+        // The list handler builds its Link header from the current request
+        var request = new MockHttpServletRequest("GET", "/api/courses");
+        request.setQueryString("limit=" + pageSize);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public byte[] getCourseById() {
+        return jsonMapper.writeValueAsBytes(controller.getCourseById(id, null, null).getBody());
+    }
+
+    @Benchmark
+    public byte[] getFirstPage() {
+        return jsonMapper.writeValueAsBytes(controller.getAllCourses(pageSize, null, null, null).getBody());
+    }
+}
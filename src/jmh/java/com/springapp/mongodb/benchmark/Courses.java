@@ -0,0 +1,35 @@
+package com.springapp.mongodb.benchmark;
+
+import com.springapp.mongodb.model.Course;
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Deterministic sample data, sized like a typical catalog entry.
+ */
+final class Courses {
+
+    private Courses() {
+    }
+
+    static Course course(int number) {
+        var course = new Course("Spring Boot course " + number,
+                "Building REST APIs with Spring Boot and MongoDB, lesson " + number + " of the series", number % 2 == 0);
+        course.setId(new ObjectId(new Date(1_700_000_000_000L + number * 1000L), number).toHexString());
+        course.setVersion((long) number % 7);
+        course.setLastModified(Instant.ofEpochSecond(1_700_000_000L + number));
+        return course;
+    }
+
+    static List<Course> courses(int count) {
+        List<Course> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            courses.add(course(i));
+        }
+        return courses;
+    }
+}
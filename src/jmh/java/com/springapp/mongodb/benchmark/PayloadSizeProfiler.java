@@ -0,0 +1,52 @@
+package com.springapp.mongodb.benchmark;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reports the payload size a benchmark recorded with {@link #record} as {@code payload.size}, next to its timings in
+ * {@code jmh-result.json}. JMH itself only measures time, and aux counters are summed over iterations.
+ * Runs in the forked benchmark VM, enabled with {@code -prof} in the {@code benchmarks} profile.
+ */
+public class PayloadSizeProfiler implements InternalProfiler {
+
+    private record Recorded(String benchmarkId, long bytes) {
+    }
+
+    private static volatile Recorded recorded;
+
+    /**
+     * Called from a benchmark's {@code @Setup}, which JMH hands the {@link BenchmarkParams} of the running benchmark.
+     */
+    static void record(BenchmarkParams benchmark, long bytes) {
+        recorded = new Recorded(benchmark.id(), bytes);
+    }
+
+    @Override
+    public String getDescription() {
+        return "Payload size recorded by the benchmark";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams,
+                                                       IterationResult result) {
+        Recorded current = recorded;
+        if (current == null || !current.benchmarkId().equals(benchmarkParams.id())) {
+            return List.of();
+        }
+        // The same value every iteration, so the average is the size itself
+        return List.of(new ScalarResult("payload.size", current.bytes(), "B", AggregationPolicy.AVG));
+    }
+}
@@ -2,12 +2,16 @@ package com.springapp.mongodb;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class SpringBootAppWithMongodbApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(SpringBootAppWithMongodbApplication.class, args);
+		SpringApplication application = new SpringApplication(SpringBootAppWithMongodbApplication.class);
+		// Records startup steps for StartupReport and /actuator/startup
+		application.setApplicationStartup(new BufferingApplicationStartup(4096));
+		application.run(args);
 	}
 
 }
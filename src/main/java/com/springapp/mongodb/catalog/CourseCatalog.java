@@ -0,0 +1,303 @@
+package com.springapp.mongodb.catalog;
+
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.repository.CourseRepository;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SequenceWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The whole catalog as one gzipped JSON array, served by {@code GET /api/courses/catalog} without touching MongoDB.
+ * <p>
+ * Every course write made through this instance calls {@link #invalidate()}, which drops the snapshot at once, and
+ * schedules a rebuild {@code courses.catalog.rebuild-delay} later, so a burst of writes costs one rebuild. A rebuild
+ * that overlaps a write is discarded and retried. While there is no snapshot the endpoint streams the catalog from
+ * MongoDB instead. Catalogs whose compressed size exceeds {@code courses.catalog.max-size} are never kept in memory.
+ * Once a catalog has been found too large, it is not built again until a write leaves fewer courses than it had then,
+ * or {@code courses.catalog.oversized-backoff} has passed.
+ * <p>
+ * Writes made through other instances, or directly in MongoDB, do not reach {@link #invalidate()}. A snapshot is
+ * therefore never served once it is older than {@code courses.catalog.max-age}, and is rebuilt when it is half that
+ * age. So the catalog reflects this instance's own writes at once and everyone else's within the maximum age.
+ * Rebuilds and refreshes run on Spring Boot's task scheduler.
+ */
+@Component
+public class CourseCatalog implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseCatalog.class);
+
+    private final CourseRepository repository;
+    private final TaskScheduler taskScheduler;
+    private final ObjectWriter arrayWriter;
+
+    // Guards publishing a snapshot against a concurrent invalidation, and the pending rebuild
+    private final ReentrantLock lock = new ReentrantLock();
+    private long generation;
+    private volatile @Nullable Snapshot snapshot;
+    private @Nullable ScheduledFuture<?> pendingRebuild;
+    private volatile @Nullable ScheduledFuture<?> refreshing;
+    // Only touched on the rebuild thread
+    private @Nullable Oversized oversized;
+
+    @Value("${courses.catalog.enabled:true}")
+    private boolean enabled;
+
+    @Value("${courses.catalog.rebuild-delay:1s}")
+    private Duration rebuildDelay;
+
+    @Value("${courses.catalog.max-size:64MB}")
+    private DataSize maxSize;
+
+    @Value("${courses.catalog.max-age:5m}")
+    private Duration maxAge;
+
+    @Value("${courses.catalog.oversized-backoff:1h}")
+    private Duration oversizedBackoff;
+
+    @Value("${courses.export.batch-size:500}")
+    private int batchSize;
+
+    public CourseCatalog(CourseRepository repository, TaskScheduler taskScheduler, JsonMapper jsonMapper) {
+        this.repository = repository;
+        this.taskScheduler = taskScheduler;
+        // The servlet container owns the response stream
+        this.arrayWriter = jsonMapper.writerFor(Course.class).without(StreamWriteFeature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * @return the current snapshot, or {@code null} while it is being rebuilt or once it is older than the maximum age
+     */
+    public @Nullable Snapshot snapshot() {
+        Snapshot current = snapshot;
+        return current != null && current.builtAt().plus(maxAge).isAfter(Instant.now()) ? current : null;
+    }
+
+    public void invalidate() {
+        lock.lock();
+        try {
+            generation++;
+            snapshot = null;
+            scheduleRebuild();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Streams the catalog from MongoDB as a JSON array, for requests that arrive while there is no snapshot.
+     */
+    public void writeLive(OutputStream out) throws IOException {
+        try (Stream<Course> courses = repository.streamAll(batchSize);
+             SequenceWriter writer = arrayWriter.writeValuesAsArray(out)) {
+            Iterator<Course> iterator = courses.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+            }
+        }
+    }
+
+    void rebuild() {
+        long startedAt;
+        lock.lock();
+        try {
+            pendingRebuild = null;
+            startedAt = generation;
+        } finally {
+            lock.unlock();
+        }
+
+        Snapshot built;
+        try {
+            if (stillOversized()) {
+                return;
+            }
+            built = build();
+            if (built == null) {
+                // Writes made meanwhile have scheduled their own rebuild, which checks the count again
+                oversized = new Oversized(repository.count(), Instant.now().plus(oversizedBackoff));
+                log.info("Course catalog is larger than {} gzipped, it is served from live reads for up to {}",
+                        maxSize, oversizedBackoff);
+                return;
+            }
+        } catch (RuntimeException | IOException e) {
+            log.warn("Course catalog snapshot could not be built, serving live reads: {}", e.getMessage());
+            lock.lock();
+            try {
+                scheduleRebuild();
+            } finally {
+                lock.unlock();
+            }
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (generation != startedAt) {
+                // Courses were written while streaming; this snapshot may miss them
+                scheduleRebuild();
+            } else {
+                oversized = null;
+                snapshot = built;
+                log.info("Course catalog snapshot built with {} courses, {} bytes gzipped", built.courses(), built.gzipped().length);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private @Nullable Snapshot build() throws IOException {
+        MessageDigest digest = sha256();
+        var gzipped = new ByteArrayOutputStream();
+        int courses = 0;
+        try (Stream<Course> stream = repository.streamAll(batchSize);
+             var gzip = new GZIPOutputStream(gzipped, 64 * 1024);
+             var out = new DigestOutputStream(gzip, digest)) {
+            Iterator<Course> iterator = stream.iterator();
+            SequenceWriter writer = arrayWriter.writeValuesAsArray(out);
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                courses++;
+                if (gzipped.size() > maxSize.toBytes()) {
+                    return null;
+                }
+            }
+            writer.close();
+        }
+        String etag = HexFormat.of().formatHex(digest.digest(), 0, 16);
+        return new Snapshot(gzipped.toByteArray(), etag, courses, Instant.now());
+    }
+
+    /**
+     * Only a shrinking collection can bring an oversized catalog back under the limit before the back-off ends.
+     */
+    private boolean stillOversized() {
+        Oversized last = oversized;
+        return last != null && last.retryAt().isAfter(Instant.now()) && repository.count() >= last.courses();
+    }
+
+    /**
+     * Rebuilds a snapshot that has reached half the maximum age, so a fresh one replaces it before it expires.
+     */
+    private void refresh() {
+        Snapshot current = snapshot;
+        if (current != null && current.builtAt().plus(maxAge.dividedBy(2)).isAfter(Instant.now())) {
+            return;
+        }
+        Oversized last = oversized;
+        if (last != null && last.retryAt().isAfter(Instant.now())) {
+            return;
+        }
+        lock.lock();
+        try {
+            scheduleRebuild();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called with the lock held
+    private void scheduleRebuild() {
+        if (!enabled || refreshing == null || (pendingRebuild != null && !pendingRebuild.isDone())) {
+            return;
+        }
+        try {
+            pendingRebuild = taskScheduler.schedule(this::rebuild, Instant.now().plus(rebuildDelay));
+        } catch (TaskRejectedException e) {
+            // The scheduler is shutting down ahead of this bean; the catalog is served from live reads until then
+            log.debug("Course catalog rebuild not scheduled: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        Duration refreshInterval = Duration.ofMillis(Math.max(1, maxAge.dividedBy(4).toMillis()));
+        refreshing = taskScheduler.scheduleWithFixedDelay(this::refresh, Instant.now().plus(refreshInterval),
+                refreshInterval);
+        invalidate();
+    }
+
+    @Override
+    public void stop() {
+        lock.lock();
+        try {
+            ScheduledFuture<?> current = refreshing;
+            if (current != null) {
+                current.cancel(true);
+                refreshing = null;
+            }
+            if (pendingRebuild != null) {
+                pendingRebuild.cancel(true);
+                pendingRebuild = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return refreshing != null;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param courses how many courses the collection held when the catalog was found too large
+     * @param retryAt when to try building it again regardless
+     */
+    private record Oversized(long courses, Instant retryAt) {
+    }
+
+    /**
+     * @param gzipped the JSON array, gzip-compressed; shared by every response, never modified
+     * @param etag    digest of the uncompressed JSON, without quotes
+     */
+    public record Snapshot(byte[] gzipped, String etag, int courses, Instant builtAt) {
+
+        /**
+         * The uncompressed JSON, for clients that do not accept gzip.
+         */
+        public InputStream inflated() {
+            try {
+                return new GZIPInputStream(new ByteArrayInputStream(gzipped));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
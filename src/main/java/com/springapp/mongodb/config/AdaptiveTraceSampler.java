@@ -0,0 +1,228 @@
+package com.springapp.mongodb.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides which traces reach the exporter once they have finished, when their latency and outcome are known. A head
+ * sampler decides when the first span starts, before either is known, so every span is recorded and held here until
+ * the trace's local root span ends. The trace is then kept if the root took longer than the latency threshold, if it
+ * answered 4xx or 5xx or any of its spans failed, or else with the baseline probability.
+ * <p>
+ * Kept traces spend tokens from a bucket refilled at the configured spans per second, so a burst of slow or failing
+ * requests cannot flood the collector. Baseline traces may only use the upper half of the bucket, which leaves room
+ * for the slow and failed ones that matter most.
+ */
+class AdaptiveTraceSampler implements SpanProcessor {
+
+    enum Decision {
+        SLOW, ERROR, BASELINE, DROPPED, OVER_BUDGET, EVICTED;
+
+        boolean kept() {
+            return this == SLOW || this == ERROR || this == BASELINE;
+        }
+    }
+
+    // The OpenTelemetry server convention's key; Micrometer's default convention calls it "status"
+    private static final AttributeKey<String> HTTP_STATUS = AttributeKey.stringKey("http.response.status_code");
+    private static final AttributeKey<String> STATUS = AttributeKey.stringKey("status");
+
+    private final SpanProcessor delegate;
+    private final double baseline;
+    private final long latencyThresholdNanos;
+    private final double spansPerSecond;
+    private final int maxPendingTraces;
+    private final LongSupplier nanoTime;
+    private final DoubleSupplier random;
+    private final Map<Decision, Counter> decisions = new EnumMap<>(Decision.class);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Ended spans of traces whose local root is still running, oldest trace first
+    private final LinkedHashMap<String, PendingTrace> pending = new LinkedHashMap<>();
+    // Recent decisions, for spans that end after their root (async work the request started)
+    private final LinkedHashMap<String, Boolean> decided = new LinkedHashMap<>(16, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > maxPendingTraces;
+        }
+    };
+    private double tokens;
+    private long refilledAt;
+
+    AdaptiveTraceSampler(SpanProcessor delegate, MeterRegistry meterRegistry, double baseline,
+                         Duration latencyThreshold, int spansPerSecond, int maxPendingTraces) {
+        this(delegate, meterRegistry, baseline, latencyThreshold, spansPerSecond, maxPendingTraces,
+                System::nanoTime, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    AdaptiveTraceSampler(SpanProcessor delegate, MeterRegistry meterRegistry, double baseline,
+                         Duration latencyThreshold, int spansPerSecond, int maxPendingTraces,
+                         LongSupplier nanoTime, DoubleSupplier random) {
+        this.delegate = delegate;
+        this.baseline = baseline;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.spansPerSecond = Math.max(1, spansPerSecond);
+        this.maxPendingTraces = Math.max(1, maxPendingTraces);
+        this.nanoTime = nanoTime;
+        this.random = random;
+        this.tokens = this.spansPerSecond;
+        this.refilledAt = nanoTime.getAsLong();
+
+        for (Decision decision : Decision.values()) {
+            decisions.put(decision, Counter.builder("courses.tracing.traces")
+                    .description("Finished traces by sampling decision")
+                    .tag("decision", decision.name().toLowerCase().replace('_', '-'))
+                    .register(meterRegistry));
+        }
+        Gauge.builder("courses.tracing.pending", this, AdaptiveTraceSampler::pendingTraces)
+                .description("Traces held until their root span ends")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+        if (delegate.isStartRequired()) {
+            delegate.onStart(parentContext, span);
+        }
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return delegate.isStartRequired();
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        String traceId = span.getSpanContext().getTraceId();
+        List<ReadableSpan> export;
+        lock.lock();
+        try {
+            Boolean kept = decided.get(traceId);
+            if (kept != null) {
+                export = kept ? List.of(span) : List.of();
+            } else {
+                PendingTrace trace = pending.get(traceId);
+                if (trace == null) {
+                    trace = new PendingTrace();
+                    pending.put(traceId, trace);
+                    evictOverflow();
+                }
+                trace.spans.add(span);
+                trace.failed |= span.toSpanData().getStatus().getStatusCode() == StatusCode.ERROR;
+                if (!isLocalRoot(span)) {
+                    return;
+                }
+                pending.remove(traceId);
+                Decision decision = decide(span, trace);
+                decisions.get(decision).increment();
+                decided.put(traceId, decision.kept());
+                export = decision.kept() ? trace.spans : List.of();
+            }
+        } finally {
+            lock.unlock();
+        }
+        // Export outside the lock; the batch processor only queues
+        export.forEach(delegate::onEnd);
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return delegate.forceFlush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return delegate.shutdown();
+    }
+
+    int pendingTraces() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Decision decide(ReadableSpan root, PendingTrace trace) {
+        Decision wanted;
+        if (root.getLatencyNanos() > latencyThresholdNanos) {
+            wanted = Decision.SLOW;
+        } else if (trace.failed || isErrorStatus(root)) {
+            wanted = Decision.ERROR;
+        } else if (random.getAsDouble() < baseline) {
+            wanted = Decision.BASELINE;
+        } else {
+            return Decision.DROPPED;
+        }
+
+        refill();
+        double floor = wanted == Decision.BASELINE ? spansPerSecond / 2 : 0;
+        int cost = trace.spans.size();
+        if (tokens - cost < floor) {
+            return Decision.OVER_BUDGET;
+        }
+        tokens -= cost;
+        return wanted;
+    }
+
+    private void refill() {
+        long now = nanoTime.getAsLong();
+        tokens = Math.min(spansPerSecond, tokens + (now - refilledAt) / 1e9 * spansPerSecond);
+        refilledAt = now;
+    }
+
+    private void evictOverflow() {
+        // A trace whose root never ends here would otherwise be held forever
+        Iterator<Map.Entry<String, PendingTrace>> oldest = pending.entrySet().iterator();
+        while (pending.size() > maxPendingTraces && oldest.hasNext()) {
+            decided.put(oldest.next().getKey(), false);
+            oldest.remove();
+            decisions.get(Decision.EVICTED).increment();
+        }
+    }
+
+    private static boolean isLocalRoot(ReadableSpan span) {
+        SpanContext parent = span.getParentSpanContext();
+        return !parent.isValid() || parent.isRemote();
+    }
+
+    private static boolean isErrorStatus(ReadableSpan span) {
+        String status = span.getAttribute(HTTP_STATUS);
+        if (status == null) {
+            status = span.getAttribute(STATUS);
+        }
+        return status != null && status.length() == 3 && (status.charAt(0) == '4' || status.charAt(0) == '5');
+    }
+
+    private static final class PendingTrace {
+        private final List<ReadableSpan> spans = new ArrayList<>();
+        private boolean failed;
+    }
+}
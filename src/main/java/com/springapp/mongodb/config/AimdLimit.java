@@ -0,0 +1,79 @@
+package com.springapp.mongodb.config;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Additive-increase/multiplicative-decrease concurrency limit. Each request that finishes within the latency threshold
+ * while the budget is at least half used raises the limit by one; a slow or failed request cuts it by
+ * {@link #BACKOFF}. The limit stays between one and the configured maximum.
+ */
+class AimdLimit {
+
+    static final double BACKOFF = 0.9;
+
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private double limit;
+    private int inFlight;
+
+    AimdLimit(int initialLimit, int maxLimit, Duration latencyThreshold) {
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.limit = Math.clamp(initialLimit, 1, maxLimit);
+    }
+
+    /**
+     * @return whether the request may proceed; if so, {@link #release(long, boolean)} must follow
+     */
+    boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (inFlight >= (int) limit) {
+                return false;
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param failed whether the request failed in a way that points at an overloaded backend
+     */
+    void release(long latencyNanos, boolean failed) {
+        lock.lock();
+        try {
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(1, limit * BACKOFF);
+            } else if (inFlight * 2 >= limit) {
+                // Only grow while the budget is actually in use, so a quiet period does not inflate it
+                limit = Math.min(maxLimit, limit + 1);
+            }
+            inFlight--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
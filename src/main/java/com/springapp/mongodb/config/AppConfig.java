@@ -1,5 +1,6 @@
 package com.springapp.mongodb.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.binder.jvm.ClassLoaderMetrics;
 import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
@@ -9,30 +10,100 @@ import io.micrometer.core.instrument.binder.jvm.convention.otel.OpenTelemetryJvm
 import io.micrometer.core.instrument.binder.jvm.convention.otel.OpenTelemetryJvmMemoryMeterConventions;
 import io.micrometer.core.instrument.binder.jvm.convention.otel.OpenTelemetryJvmThreadMeterConventions;
 import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.micrometer.tracing.opentelemetry.autoconfigure.SpanProcessors;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.json.JacksonJsonHttpMessageConverter;
 import org.springframework.http.server.observation.OpenTelemetryServerRequestObservationConvention;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
 
+import java.time.Duration;
 import java.util.List;
 
+/**
+ * Scheduling is enabled so Spring Boot creates its task scheduler, which the catalog, the stats reconciliation and the
+ * MongoDB health check share; it is decorated with the {@code ContextPropagatingTaskDecorator} below and shut down
+ * with the context.
+ */
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
     /**
      * Spring Boot's autoconfiguration looks for <code>TaskDecorator</code> beans and installs them into the <code>AsyncTaskExecutor</code>.
-     * With the <code>ContextPropagatingTaskDecorator</code> in place, the context is now transferred to new threads, fixing lost trace IDs in logs and lost spans.
+     * With the {@code ContextPropagatingTaskDecorator} in place, the context is now transferred to new threads, fixing lost trace IDs in logs and lost spans.
      */
     @Bean
     ContextPropagatingTaskDecorator contextPropagatingTaskDecorator() {
         return new ContextPropagatingTaskDecorator();
     }
 
+    /**
+     * Bounded pool for background jobs (see <code>JobService</code>), kept apart from the application executor so
+     * a long import cannot starve MVC async requests. Decorated the same way, so job logs carry the trace ID of
+     * the request that started the job. Not a default candidate, so Spring Boot still creates the application
+     * executor, and only <code>@Qualifier("jobTaskExecutor")</code> injection points get this one.
+     */
+    @Bean(defaultCandidate = false)
+    ThreadPoolTaskExecutor jobTaskExecutor(ContextPropagatingTaskDecorator contextPropagatingTaskDecorator,
+                                           @Value("${courses.jobs.pool-size:2}") int poolSize,
+                                           @Value("${courses.jobs.queue-capacity:10}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("job-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setTaskDecorator(contextPropagatingTaskDecorator);
+        return executor;
+    }
+
+    /**
+     * Replaces the list of span processors Spring Boot hands to the tracer provider with one that puts
+     * <code>AdaptiveTraceSampler</code> in front of them, so the exporting processor only sees the traces it keeps.
+     * Every span still has to be recorded for this to work, hence <code>management.tracing.sampling.probability=1.0</code>.
+     */
+    @Bean
+    SpanProcessors spanProcessors(ObjectProvider<SpanProcessor> spanProcessors, MeterRegistry meterRegistry,
+                                  @Value("${courses.tracing.baseline:0.05}") double baseline,
+                                  @Value("${courses.tracing.latency-threshold:500ms}") Duration latencyThreshold,
+                                  @Value("${courses.tracing.spans-per-second:500}") int spansPerSecond,
+                                  @Value("${courses.tracing.max-pending-traces:10000}") int maxPendingTraces) {
+        SpanProcessor exporting = SpanProcessor.composite(spanProcessors.orderedStream().toList());
+        return SpanProcessors.of(new AdaptiveTraceSampler(exporting, meterRegistry, baseline, latencyThreshold,
+                spansPerSecond, maxPendingTraces));
+    }
+
     @Bean
     OpenTelemetryServerRequestObservationConvention openTelemetryServerRequestObservationConvention() {
         return new OpenTelemetryServerRequestObservationConvention();
     }
 
+    /**
+     * Replaces Spring Boot's JSON converter, which backs off when one is defined, with one that records
+     * <code>http.server.response.payload</code> and <code>http.server.response.serialization</code>.
+     */
+    @Bean
+    JacksonJsonHttpMessageConverter jacksonJsonHttpMessageConverter(JsonMapper jsonMapper, MeterRegistry meterRegistry) {
+        return new MeteredJacksonJsonHttpMessageConverter(jsonMapper, meterRegistry);
+    }
+
+    /**
+     * Serves <code>application/cbor</code> to clients that ask for it, and reads it in request bodies, with Spring Boot's
+     * <code>CBORMapper</code> and the same metrics as JSON. JSON stays the default for clients without a preference.
+     */
+    @Bean
+    JacksonCborHttpMessageConverter jacksonCborHttpMessageConverter(CBORMapper cborMapper, MeterRegistry meterRegistry) {
+        return new MeteredJacksonCborHttpMessageConverter(cborMapper, meterRegistry);
+    }
+
     @Bean
     OpenTelemetryJvmCpuMeterConventions openTelemetryJvmCpuMeterConventions() {
         return new OpenTelemetryJvmCpuMeterConventions(Tags.empty());
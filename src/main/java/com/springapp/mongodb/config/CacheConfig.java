@@ -0,0 +1,40 @@
+package com.springapp.mongodb.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NullValue;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String COURSES_CACHE = "courses";
+
+    /**
+     * Read-through cache for <code>CourseService.findById</code>, bounded by entry count and time to live.
+     * Unknown ids are cached as <code>NullValue</code> with their own, shorter time to live so a burst of lookups for a
+     * missing course does not reach MongoDB, yet a course created elsewhere becomes visible quickly.
+     * Statistics are recorded so Spring Boot binds <code>cache.gets</code>, <code>cache.puts</code> and
+     * <code>cache.evictions</code> to the Prometheus/OTLP registries.
+     */
+    @Bean
+    CaffeineCacheManager cacheManager(@Value("${courses.cache.maximum-size:10000}") long maximumSize,
+                                      @Value("${courses.cache.ttl:10m}") Duration ttl,
+                                      @Value("${courses.cache.negative-ttl:30s}") Duration negativeTtl) {
+        var cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(COURSES_CACHE, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.<Object, Object>writing((key, value) ->
+                        value == NullValue.INSTANCE ? negativeTtl : ttl))
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,202 @@
+package com.springapp.mongodb.config;
+
+import com.springapp.mongodb.exception.ExceptionResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sheds load on the course APIs before requests queue up for MongoDB connections. Each kind of request has its own
+ * {@link AimdLimit}: reads, single-course writes, bulk writes, and exports. The limit grows while requests finish
+ * within the budget's latency threshold and shrinks when they are slow or fail with a 5xx, so it follows what MongoDB
+ * can currently serve. A request over the limit is answered {@code 503} with {@code Retry-After} at once, without
+ * touching MongoDB. Actuator endpoints are not limited, so probes stay fast.
+ * <p>
+ * Latency is the service time. For the endpoints that stream their body (exports and the catalog) that is the time
+ * until the handler hands the body over; how long the client then takes to download it says nothing about MongoDB.
+ * Their permit is still held until the response completes, so the number of open streams stays bounded.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    enum Budget {
+        READS, WRITES, BULK, EXPORTS
+    }
+
+    private final JsonMapper jsonMapper;
+    private final boolean enabled;
+    private final String retryAfterSeconds;
+    private final Map<Budget, AimdLimit> limits = new EnumMap<>(Budget.class);
+    private final Map<Budget, Counter> rejections = new EnumMap<>(Budget.class);
+
+    public ConcurrencyLimitFilter(JsonMapper jsonMapper, MeterRegistry meterRegistry,
+                                  @Value("${courses.limits.enabled:true}") boolean enabled,
+                                  @Value("${courses.limits.retry-after:1s}") Duration retryAfter,
+                                  @Value("${courses.limits.reads.max:400}") int maxReads,
+                                  @Value("${courses.limits.reads.latency-threshold:250ms}") Duration readLatency,
+                                  @Value("${courses.limits.writes.max:200}") int maxWrites,
+                                  @Value("${courses.limits.writes.latency-threshold:500ms}") Duration writeLatency,
+                                  @Value("${courses.limits.bulk.max:4}") int maxBulk,
+                                  @Value("${courses.limits.bulk.latency-threshold:60s}") Duration bulkLatency,
+                                  @Value("${courses.limits.exports.max:4}") int maxExports,
+                                  @Value("${courses.limits.exports.latency-threshold:1s}") Duration exportLatency) {
+        this.jsonMapper = jsonMapper;
+        this.enabled = enabled;
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+        // Start at a quarter of the maximum and let observed latency raise it
+        limits.put(Budget.READS, new AimdLimit(maxReads / 4, maxReads, readLatency));
+        limits.put(Budget.WRITES, new AimdLimit(maxWrites / 4, maxWrites, writeLatency));
+        limits.put(Budget.BULK, new AimdLimit(maxBulk, maxBulk, bulkLatency));
+        limits.put(Budget.EXPORTS, new AimdLimit(maxExports, maxExports, exportLatency));
+
+        limits.forEach((budget, limit) -> {
+            String tag = budget.name().toLowerCase();
+            Gauge.builder("courses.concurrency.limit", limit, AimdLimit::limit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("budget", tag)
+                    .register(meterRegistry);
+            Gauge.builder("courses.concurrency.in-flight", limit, AimdLimit::inFlight)
+                    .description("Requests currently holding a concurrency permit")
+                    .tag("budget", tag)
+                    .register(meterRegistry);
+            rejections.put(budget, Counter.builder("courses.concurrency.rejected")
+                    .description("Requests shed with 503 because the concurrency limit was reached")
+                    .tag("budget", tag)
+                    .register(meterRegistry));
+        });
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !enabled || !(path.startsWith("/api/courses") || path.startsWith("/api/reactive/courses"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Budget budget = budgetOf(request);
+        AimdLimit limit = limits.get(budget);
+        if (!limit.tryAcquire()) {
+            rejections.get(budget).increment();
+            reject(request, response);
+            return;
+        }
+
+        var permit = new Permit(limit, System.nanoTime());
+        boolean served = false;
+        boolean handedOff = false;
+        try {
+            filterChain.doFilter(request, response);
+            served = true;
+            if (request.isAsyncStarted()) {
+                if (streamsBody(request)) {
+                    permit.serviceDone();
+                }
+                // Streamed bodies and reactive handlers finish after this thread returns; hold the permit until they do
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        permit.release(response.getStatus() >= 500);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                        permit.release(true);
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                        permit.release(true);
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+                handedOff = true;
+            }
+        } finally {
+            // Every other way out, an Error included, gives the permit back here
+            if (!handedOff) {
+                permit.release(!served || response.getStatus() >= 500);
+            }
+        }
+    }
+
+    static Budget budgetOf(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (path.endsWith("/export")) {
+            return Budget.EXPORTS;
+        }
+        if (path.endsWith("/bulk")) {
+            return Budget.BULK;
+        }
+        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+        return method == HttpMethod.GET || method == HttpMethod.HEAD || method == HttpMethod.OPTIONS
+                ? Budget.READS
+                : Budget.WRITES;
+    }
+
+    static boolean streamsBody(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return path.endsWith("/export") || path.endsWith("/catalog");
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        jsonMapper.writeValue(response.getOutputStream(), new ExceptionResponse(LocalDateTime.now(),
+                "Too many concurrent requests, retry later", "uri=" + request.getRequestURI()));
+    }
+
+    /**
+     * Returns its permit exactly once, whichever of the completion paths gets there first. The latency reported is up
+     * to {@link #serviceDone()} when that was called, else up to the release.
+     */
+    private static final class Permit {
+
+        private final AimdLimit limit;
+        private final long startNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile long serviceNanos = -1;
+
+        Permit(AimdLimit limit, long startNanos) {
+            this.limit = limit;
+            this.startNanos = startNanos;
+        }
+
+        void serviceDone() {
+            serviceNanos = System.nanoTime() - startNanos;
+        }
+
+        void release(boolean failed) {
+            if (released.compareAndSet(false, true)) {
+                long latencyNanos = serviceNanos >= 0 ? serviceNanos : System.nanoTime() - startNanos;
+                limit.release(latencyNanos, failed);
+            }
+        }
+    }
+}
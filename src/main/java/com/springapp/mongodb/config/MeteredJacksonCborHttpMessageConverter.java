@@ -0,0 +1,30 @@
+package com.springapp.mongodb.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.Nullable;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * CBOR counterpart of {@link MeteredJacksonJsonHttpMessageConverter}, so both formats report to the same metrics.
+ */
+class MeteredJacksonCborHttpMessageConverter extends JacksonCborHttpMessageConverter {
+
+    private final ResponseBodyMetrics metrics;
+
+    MeteredJacksonCborHttpMessageConverter(CBORMapper cborMapper, MeterRegistry meterRegistry) {
+        super(cborMapper);
+        this.metrics = new ResponseBodyMetrics(meterRegistry);
+    }
+
+    @Override
+    protected void writeInternal(Object object, ResolvableType resolvableType, HttpOutputMessage outputMessage,
+                                 @Nullable Map<String, Object> hints) throws IOException {
+        metrics.write(outputMessage, counting -> super.writeInternal(object, resolvableType, counting, hints));
+    }
+}
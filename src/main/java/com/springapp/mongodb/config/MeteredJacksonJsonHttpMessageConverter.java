@@ -0,0 +1,30 @@
+package com.springapp.mongodb.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.Nullable;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.JacksonJsonHttpMessageConverter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * JSON converter that records response body size and serialization time, see {@link ResponseBodyMetrics}.
+ */
+class MeteredJacksonJsonHttpMessageConverter extends JacksonJsonHttpMessageConverter {
+
+    private final ResponseBodyMetrics metrics;
+
+    MeteredJacksonJsonHttpMessageConverter(JsonMapper jsonMapper, MeterRegistry meterRegistry) {
+        super(jsonMapper);
+        this.metrics = new ResponseBodyMetrics(meterRegistry);
+    }
+
+    @Override
+    protected void writeInternal(Object object, ResolvableType resolvableType, HttpOutputMessage outputMessage,
+                                 @Nullable Map<String, Object> hints) throws IOException {
+        metrics.write(outputMessage, counting -> super.writeInternal(object, resolvableType, counting, hints));
+    }
+}
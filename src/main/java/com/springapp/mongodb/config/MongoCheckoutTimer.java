@@ -0,0 +1,44 @@
+package com.springapp.mongodb.config;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times how long each operation waited for a pooled connection as <code>mongodb.driver.pool.checkout</code>.
+ * The pool gauges only show how many callers are waiting; this shows for how long, which is what
+ * <code>courses.mongo.pool.max-wait</code> bounds.
+ */
+final class MongoCheckoutTimer implements ConnectionPoolListener {
+
+    private final MeterRegistry meterRegistry;
+
+    MongoCheckoutTimer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        record(event.getConnectionId().getServerId().getAddress().toString(), "SUCCESS",
+                event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        record(event.getServerId().getAddress().toString(), event.getReason().name(),
+                event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    private void record(String serverAddress, String status, long elapsedNanos) {
+        Timer.builder("mongodb.driver.pool.checkout")
+                .description("Time spent waiting for a connection from the MongoDB pool")
+                .tag("server.address", serverAddress)
+                .tag("status", status)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,55 @@
+package com.springapp.mongodb.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.mongodb.autoconfigure.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.data.mongodb.config.EnableReactiveMongoAuditing;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Auditing fills <code>Course.lastModified</code> on every save, through the blocking and the reactive template alike;
+ * <code>@Version</code> handling comes with the template.
+ */
+@Configuration
+@EnableMongoAuditing
+@EnableReactiveMongoAuditing
+@Profile("!inmemory")
+public class MongoConfig {
+
+    /**
+     * The connection pool, not the request thread pool, bounds how many Mongo calls run at once. With virtual threads
+     * there is no Tomcat pool in front of it any more, so excess requests queue here. The driver lets them wait up to
+     * two minutes; the short default wait used here turns a saturated pool into a fast error instead of an
+     * ever-growing queue of parked threads.
+     */
+    @Bean
+    MongoClientSettingsBuilderCustomizer connectionPoolCustomizer(@Value("${courses.mongo.pool.max-size:100}") int maxSize,
+                                                                  @Value("${courses.mongo.pool.max-wait:2s}") Duration maxWait) {
+        return settings -> settings.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(maxSize)
+                .maxWaitTime(maxWait.toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Spring Boot already times every command (<code>mongodb.driver.commands</code>, tagged with command and collection)
+     * and publishes pool gauges (<code>mongodb.driver.pool.size</code>, <code>checkedout</code>, <code>waitqueuesize</code>).
+     * This adds the time spent waiting for a connection and a log of slow commands; a zero threshold turns the log off.
+     */
+    @Bean
+    MongoClientSettingsBuilderCustomizer monitoringCustomizer(MeterRegistry meterRegistry, Tracer tracer,
+                                                              @Value("${courses.mongo.slow-command-threshold:100ms}") Duration slowCommandThreshold) {
+        return settings -> {
+            settings.applyToConnectionPoolSettings(pool -> pool.addConnectionPoolListener(new MongoCheckoutTimer(meterRegistry)));
+            if (slowCommandThreshold.isPositive()) {
+                settings.addCommandListener(new SlowMongoCommandListener(slowCommandThreshold, tracer, meterRegistry));
+            }
+        };
+    }
+}
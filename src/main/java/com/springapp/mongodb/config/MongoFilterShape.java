@@ -0,0 +1,101 @@
+package com.springapp.mongodb.config;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Map;
+
+/**
+ * Renders the filter of a command with its values replaced by {@code ?}, e.g. {@code {title: {$regex: ?}}},
+ * so slow-command logs group by query shape and never leak course data.
+ */
+public final class MongoFilterShape {
+
+    private MongoFilterShape() {
+    }
+
+    /**
+     * @return the shape of the command's filter, or {@code null} for commands without one (inserts, getMore, ...)
+     */
+    static @Nullable String of(String commandName, BsonDocument command) {
+        BsonDocument filter = switch (commandName) {
+            case "find" -> document(command.get("filter"));
+            case "count", "distinct", "findAndModify" -> document(command.get("query"));
+            case "delete" -> firstStatementFilter(command.get("deletes"));
+            case "update" -> firstStatementFilter(command.get("updates"));
+            case "aggregate" -> firstMatchStage(command.get("pipeline"));
+            default -> null;
+        };
+        return filter != null ? of(filter) : null;
+    }
+
+    /**
+     * @return the shape of a filter on its own, such as one mapped from a repository query
+     */
+    public static String of(BsonDocument filter) {
+        StringBuilder shape = new StringBuilder();
+        append(shape, filter);
+        return shape.toString();
+    }
+
+    private static void append(StringBuilder shape, BsonValue value) {
+        if (value.isDocument()) {
+            shape.append('{');
+            boolean first = true;
+            for (Map.Entry<String, BsonValue> entry : value.asDocument().entrySet()) {
+                if (!first) {
+                    shape.append(", ");
+                }
+                first = false;
+                shape.append(entry.getKey()).append(": ");
+                append(shape, entry.getValue());
+            }
+            shape.append('}');
+        } else if (value.isArray() && containsDocuments(value.asArray())) {
+            // $and / $or / $nor clauses, and $elemMatch-style nesting
+            shape.append('[');
+            BsonArray array = value.asArray();
+            for (int i = 0; i < array.size(); i++) {
+                if (i > 0) {
+                    shape.append(", ");
+                }
+                append(shape, array.get(i));
+            }
+            shape.append(']');
+        } else {
+            shape.append('?');
+        }
+    }
+
+    private static boolean containsDocuments(BsonArray array) {
+        return !array.isEmpty() && array.get(0).isDocument();
+    }
+
+    private static @Nullable BsonDocument document(@Nullable BsonValue value) {
+        return value != null && value.isDocument() ? value.asDocument() : null;
+    }
+
+    // Bulk deletes and updates share one shape per batch in practice, so the first statement stands for all
+    private static @Nullable BsonDocument firstStatementFilter(@Nullable BsonValue statements) {
+        if (statements == null || !statements.isArray() || statements.asArray().isEmpty()) {
+            return null;
+        }
+        BsonDocument statement = document(statements.asArray().get(0));
+        return statement != null ? document(statement.get("q")) : null;
+    }
+
+    private static @Nullable BsonDocument firstMatchStage(@Nullable BsonValue pipeline) {
+        if (pipeline == null || !pipeline.isArray()) {
+            return null;
+        }
+        for (BsonValue stage : pipeline.asArray()) {
+            BsonDocument match = stage.isDocument() ? document(stage.asDocument().get("$match")) : null;
+            if (match != null) {
+                return match;
+            }
+        }
+        return null;
+    }
+}
@@ -4,12 +4,18 @@ import io.swagger.v3.oas.models.ExternalDocumentation;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.info.License;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 @Configuration
 public class OpenApiConfig {
+
     @Bean
+    @Lazy
     public OpenAPI awesomeAPI() {
         return new OpenAPI()
                 .info(new Info().title("Course API")
@@ -20,4 +26,32 @@ public class OpenApiConfig {
                         .description("LearnSpringApp, learnspringapp@gmail.com")
                         .url("http://www.learnspring.com"));
     }
+
+    /**
+     * Marks springdoc's beans lazy, so the OpenAPI document and its scanners are built on the first request to
+     * <code>/v3/api-docs</code> or the Swagger UI instead of while the application starts. Beans that something
+     * eager depends on, such as its MVC configurers, are still created at startup.
+     * <p>
+     * Also drops springdoc's Querydsl customizer: it is compiled against a Spring Data type that has since moved, so
+     * AOT processing fails to introspect it, and no controller here takes Querydsl predicates.
+     */
+    @Bean
+    static BeanFactoryPostProcessor deferOpenApiBeans() {
+        return beanFactory -> {
+            if (beanFactory instanceof BeanDefinitionRegistry registry
+                    && registry.containsBeanDefinition("queryDslQuerydslPredicateOperationCustomizer")) {
+                registry.removeBeanDefinition("queryDslQuerydslPredicateOperationCustomizer");
+            }
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                String factoryBean = definition.getFactoryBeanName();
+                String source = factoryBean != null && beanFactory.containsBeanDefinition(factoryBean)
+                        ? beanFactory.getBeanDefinition(factoryBean).getBeanClassName()
+                        : definition.getBeanClassName();
+                if (source != null && source.startsWith("org.springdoc.")) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
 }
@@ -0,0 +1,116 @@
+package com.springapp.mongodb.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how many bytes each response body takes and how long it takes to serialize, tagged by the matched URI
+ * template and media type, so the effect of {@code ?fields=} projections and binary formats is visible.
+ * Shared by the metered message converters.
+ */
+final class ResponseBodyMetrics {
+
+    static final String PAYLOAD_METRIC = "http.server.response.payload";
+    static final String SERIALIZATION_METRIC = "http.server.response.serialization";
+
+    private final MeterRegistry meterRegistry;
+
+    ResponseBodyMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    void write(HttpOutputMessage outputMessage, BodyWriter writer) throws IOException {
+        var counting = new CountingOutputMessage(outputMessage);
+        long start = System.nanoTime();
+        writer.writeTo(counting);
+        long elapsed = System.nanoTime() - start;
+
+        Tags tags = Tags.of("uri", currentUri(), "media_type", mediaType(outputMessage.getHeaders().getContentType()));
+        DistributionSummary.builder(PAYLOAD_METRIC)
+                .description("Serialized response body size")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(counting.bytes());
+        Timer.builder(SERIALIZATION_METRIC)
+                .description("Time spent serializing and writing the response body")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+    }
+
+    @FunctionalInterface
+    interface BodyWriter {
+
+        void writeTo(HttpOutputMessage outputMessage) throws IOException;
+    }
+
+    private static String currentUri() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object pattern = attributes != null
+                ? attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                : null;
+        // Never tag with the raw path, ids would make the tag unbounded
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    private static String mediaType(@Nullable MediaType contentType) {
+        return contentType != null ? contentType.getType() + "/" + contentType.getSubtype() : "none";
+    }
+
+    private static final class CountingOutputMessage implements HttpOutputMessage {
+
+        private final HttpOutputMessage delegate;
+        private long bytes;
+
+        CountingOutputMessage(HttpOutputMessage delegate) {
+            this.delegate = delegate;
+        }
+
+        long bytes() {
+            return bytes;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return new FilterOutputStream(delegate.getBody()) {
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    bytes++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    bytes += len;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    // Closing the response body is left to the framework, as with the unwrapped stream
+                    flush();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.springapp.mongodb.config;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import org.bson.BsonValue;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs MongoDB commands that take longer than the threshold, with their collection, filter shape and trace id,
+ * and counts them as <code>mongodb.driver.commands.slow</code>. Latency itself is timed by Spring Boot's
+ * <code>MongoMetricsCommandListener</code>; this adds which query was slow.
+ * <p>
+ * The command document is only readable while <code>commandStarted</code> runs, so the shape is taken then and
+ * kept until the command completes.
+ */
+final class SlowMongoCommandListener implements CommandListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowMongoCommandListener.class);
+
+    private final long thresholdNanos;
+    private final Tracer tracer;
+    private final MeterRegistry meterRegistry;
+    private final Map<Integer, StartedCommand> inFlight = new ConcurrentHashMap<>();
+
+    SlowMongoCommandListener(Duration threshold, Tracer tracer, MeterRegistry meterRegistry) {
+        this.thresholdNanos = threshold.toNanos();
+        this.tracer = tracer;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        BsonValue target = event.getCommand().get(event.getCommandName());
+        String collection = target != null && target.isString() ? target.asString().getValue() : "";
+        // Reactive commands may complete on a driver thread, so the trace is taken from the calling thread here
+        TraceContext trace = tracer.currentTraceContext().context();
+        inFlight.put(event.getRequestId(), new StartedCommand(collection,
+                MongoFilterShape.of(event.getCommandName(), event.getCommand()),
+                trace != null ? trace.traceId() : null));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        completed(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS), "SUCCESS");
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        completed(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS), "FAILED");
+    }
+
+    private void completed(int requestId, String commandName, long elapsedNanos, String status) {
+        StartedCommand started = inFlight.remove(requestId);
+        if (started == null || elapsedNanos < thresholdNanos) {
+            return;
+        }
+        Counter.builder("mongodb.driver.commands.slow")
+                .description("MongoDB commands slower than courses.mongo.slow-command-threshold")
+                .tag("command", commandName)
+                .tag("collection", started.collection())
+                .tag("status", status)
+                .register(meterRegistry)
+                .increment();
+        log.warn("Slow MongoDB command {} on {} took {} ms ({}), filter {}, trace {}",
+                commandName, started.collection(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos), status,
+                started.filterShape() != null ? started.filterShape() : "-",
+                started.traceId() != null ? started.traceId() : "-");
+    }
+
+    private record StartedCommand(String collection, @Nullable String filterShape, @Nullable String traceId) {
+    }
+}
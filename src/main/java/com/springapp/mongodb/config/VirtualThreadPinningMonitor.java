@@ -0,0 +1,96 @@
+package com.springapp.mongodb.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Watches for virtual threads that block while pinned to their carrier, which happens on blocking inside a
+ * <code>synchronized</code> block or a native frame on Java 21. A pinned virtual thread holds a carrier like a
+ * platform thread would, so a few of them under load quietly bring back the thread-pool limits virtual threads
+ * were meant to remove. Each occurrence longer than the threshold increments <code>jvm.threads.virtual.pinned</code>
+ * and is logged with the frame most likely to be ours.
+ * Only active when <code>spring.threads.virtual.enabled=true</code>.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.springapp.";
+
+    private final Counter pinned;
+    private final Duration threshold;
+    private volatile @Nullable RecordingStream recording;
+
+    VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                @Value("${courses.virtual-threads.pinned-threshold:20ms}") Duration threshold) {
+        this.pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier thread")
+                .register(meterRegistry);
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void start() {
+        var stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        recording = stream;
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream stream = recording;
+        if (stream != null) {
+            stream.close();
+            recording = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recording != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        log.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), culprit(event.getStackTrace()));
+    }
+
+    /**
+     * The first application frame, or the top frame when the pin happened entirely in library code.
+     */
+    private static String culprit(@Nullable RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "<no stack trace>";
+        }
+        RecordedFrame top = stackTrace.getFrames().getFirst();
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE)) {
+                return describe(frame) + " (top frame " + describe(top) + ")";
+            }
+        }
+        return describe(top);
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,29 @@
+package com.springapp.mongodb.controller;
+
+import com.springapp.mongodb.model.Course;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+/**
+ * Picks the reader for a bulk course payload by its content type. Either format may be a single top-level array,
+ * which is unwrapped, or a sequence of courses one after another: an NDJSON stream or a CBOR sequence.
+ */
+@Component
+public class BulkCourseReaders {
+
+    private final ObjectReader jsonReader;
+    private final ObjectReader cborReader;
+
+    public BulkCourseReaders(JsonMapper jsonMapper, CBORMapper cborMapper) {
+        this.jsonReader = jsonMapper.readerFor(Course.class);
+        this.cborReader = cborMapper.readerFor(Course.class);
+    }
+
+    ObjectReader forContentType(@Nullable MediaType contentType) {
+        return contentType != null && MediaType.APPLICATION_CBOR.isCompatibleWith(contentType) ? cborReader : jsonReader;
+    }
+}
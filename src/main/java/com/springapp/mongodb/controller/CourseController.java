@@ -1,17 +1,45 @@
 package com.springapp.mongodb.controller;
 
+import com.springapp.mongodb.catalog.CourseCatalog;
 import com.springapp.mongodb.exception.CourseNotFoundException;
+import com.springapp.mongodb.exception.InvalidRequestException;
+import com.springapp.mongodb.job.CourseJobs;
+import com.springapp.mongodb.model.BulkMode;
+import com.springapp.mongodb.model.BulkWriteReport;
 import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.model.CourseField;
+import com.springapp.mongodb.model.CourseProjection;
+import com.springapp.mongodb.model.CourseStats;
+import com.springapp.mongodb.model.CourseUpdate;
+import com.springapp.mongodb.model.CourseVersion;
+import com.springapp.mongodb.model.CursorPage;
+import com.springapp.mongodb.model.Job;
 import com.springapp.mongodb.service.CourseService;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @CrossOrigin(origins = "http://localhost:8081")
 @RestController
@@ -19,19 +47,142 @@ import java.util.Optional;
 public class CourseController {
 
     private final CourseService service;
+    private final CourseCatalog catalog;
+    private final CourseJobs courseJobs;
+    private final JsonMapper jsonMapper;
+    private final BulkCourseReaders bulkCourseReaders;
 
-    public CourseController(CourseService service) {
+    @Value("${courses.export.timeout:30m}")
+    private Duration exportTimeout;
+
+    public CourseController(CourseService service, CourseCatalog catalog, CourseJobs courseJobs, JsonMapper jsonMapper,
+                            BulkCourseReaders bulkCourseReaders) {
         this.service = service;
+        this.catalog = catalog;
+        this.courseJobs = courseJobs;
+        this.jsonMapper = jsonMapper;
+        this.bulkCourseReaders = bulkCourseReaders;
     }
 
-    // http://localhost:8080/api/courses/
+    // http://localhost:8080/api/courses?limit=100&after=<cursor>
     @GetMapping
-    @Operation(summary = "Find All Course Details")
-    public ResponseEntity<@NonNull List<Course>> getAllCourses() {
-        Optional<List<Course>> courses = service.findAll();
+    @Operation(summary = "Find All Course Details, one page at a time")
+    public ResponseEntity<@NonNull List<Course>> getAllCourses(@RequestParam(required = false) @Nullable Integer limit,
+                                                              @RequestParam(required = false) @Nullable String after,
+                                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                              @Nullable String ifNoneMatch,
+                                                              @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+                                                              @Nullable String accept) {
+        // JSON and CBOR pages are different representations of the same URL, so each gets its own tag
+        String variant = CourseResponses.representation(accept);
+        String notModified = revalidatePage(after, limit, ifNoneMatch, variant);
+        if (notModified != null) {
+            return CourseResponses.notModified(notModified);
+        }
 
-        return courses.map(courseDetails -> new ResponseEntity<>(courseDetails, HttpStatus.OK))
-                .orElseThrow(() -> new CourseNotFoundException("No Courses are available.."));
+        CursorPage<Course> page = service.findPage(after, limit);
+        return CourseResponses.page(ServletUriComponentsBuilder.fromCurrentRequest(), page, CourseResponses::versionOf, variant)
+                .body(page.items());
+    }
+
+    // http://localhost:8080/api/courses?fields=id,title&limit=100&after=<cursor>
+    @GetMapping(params = "fields")
+    @Operation(summary = "Find All Courses with only the selected fields, one page at a time")
+    public ResponseEntity<@NonNull List<CourseProjection>> getAllCoursesProjected(@RequestParam String fields,
+                                                                                 @RequestParam(required = false) @Nullable Integer limit,
+                                                                                 @RequestParam(required = false) @Nullable String after,
+                                                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                                                 @Nullable String ifNoneMatch,
+                                                                                 @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+                                                                                 @Nullable String accept) {
+        Set<CourseField> selected = CourseField.parse(fields);
+        // Each field selection in each media type is its own representation, so it gets its own tag
+        String variant = selected + CourseResponses.representation(accept);
+        String notModified = revalidatePage(after, limit, ifNoneMatch, variant);
+        if (notModified != null) {
+            return CourseResponses.notModified(notModified);
+        }
+
+        CursorPage<CourseProjection> page = service.findPage(after, limit, selected);
+        return CourseResponses.page(ServletUriComponentsBuilder.fromCurrentRequest(), page,
+                        course -> new CourseVersion(course.id(), course.version()), variant)
+                .body(page.items());
+    }
+
+    // http://localhost:8080/api/courses/export
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export All Courses as newline-delimited JSON")
+    public ResponseEntity<@NonNull StreamingResponseBody> exportCourses(HttpServletRequest request) {
+        // Only the export may outlive the default async timeout, which stays short for every other async request
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeout.toMillis());
+        // Runs on the MVC async executor; a slow client blocks the write, which stops the cursor
+        // from fetching its next batch, so heap use stays at one batch whatever the collection size
+        StreamingResponseBody body = outputStream -> {
+            try (Stream<Course> courses = service.streamAll()) {
+                Iterator<Course> iterator = courses.iterator();
+                while (iterator.hasNext()) {
+                    outputStream.write(jsonMapper.writeValueAsBytes(iterator.next()));
+                    outputStream.write('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // http://localhost:8080/api/courses/stats
+    @GetMapping("/stats")
+    @Operation(summary = "Count Courses in total, by published flag and by title prefix")
+    public ResponseEntity<@NonNull CourseStats> getStats(@RequestParam(defaultValue = "false") boolean fresh) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(service.stats(fresh));
+    }
+
+    // http://localhost:8080/api/courses/catalog
+    @GetMapping("/catalog")
+    @Operation(summary = "Find All Courses in one response, served from a precomputed gzip snapshot")
+    public ResponseEntity<@NonNull StreamingResponseBody> getCatalog(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                                                     @Nullable String acceptEncoding,
+                                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                                     @Nullable String ifNoneMatch) {
+        CourseCatalog.Snapshot snapshot = catalog.snapshot();
+        if (snapshot == null) {
+            // Rebuilding after a write: stream the live catalog rather than wait
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .cacheControl(CacheControl.noCache())
+                    .body(catalog::writeLive);
+        }
+
+        boolean gzip = CourseResponses.acceptsGzip(acceptEncoding);
+        // Each encoding is its own representation, so it gets its own tag
+        String etag = "\"" + snapshot.etag() + (gzip ? "-gzip" : "") + "\"";
+        if (CourseETags.matchesAny(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        var response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .cacheControl(CacheControl.noCache());
+        if (!gzip) {
+            return response.body(outputStream -> {
+                try (InputStream json = snapshot.inflated()) {
+                    json.transferTo(outputStream);
+                }
+            });
+        }
+        // Every response writes the same shared buffer, nothing is serialized or compressed per request
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .contentLength(snapshot.gzipped().length)
+                .body(outputStream -> outputStream.write(snapshot.gzipped()));
     }
 
     // http://localhost:8080/api/courses/course-titles?title=boot
@@ -40,17 +191,40 @@ public class CourseController {
     public ResponseEntity<@NonNull List<Course>> getAllCoursesBasedOnTitle(@RequestParam String title) {
         Optional<List<Course>> courses = service.findByTitleContaining(title);
 
-        return courses.map(courseDetails -> new ResponseEntity<>(courseDetails, HttpStatus.OK))
+        return courses.map(courseDetails -> ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(courseDetails))
+                .orElseThrow(() -> new CourseNotFoundException("No Courses are available.."));
+    }
+
+    // http://localhost:8080/api/courses/course-titles?title=boot&fields=id,title
+    @GetMapping(value = "/course-titles", params = "fields")
+    @Operation(summary = "Find courses By title with only the selected fields")
+    public ResponseEntity<@NonNull List<CourseProjection>> getAllCoursesBasedOnTitleProjected(@RequestParam String title,
+                                                                                             @RequestParam String fields) {
+        Optional<List<CourseProjection>> courses = service.findByTitleContaining(title, CourseField.parse(fields));
+
+        return courses.map(courseDetails -> ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(courseDetails))
                 .orElseThrow(() -> new CourseNotFoundException("No Courses are available.."));
     }
 
     // http://localhost:8080/api/courses/1
     @GetMapping("/{id}")
     @Operation(summary = "Find Course By Id")
-    public ResponseEntity<@NonNull Course> getCourseById(@PathVariable("id") String id) {
+    public ResponseEntity<@NonNull Course> getCourseById(@PathVariable("id") String id,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                        @Nullable String ifNoneMatch,
+                                                        @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+                                                        @Nullable String accept) {
         Optional<Course> course = service.findById(id);
 
-        return course.map(courseOne -> new ResponseEntity<>(courseOne, HttpStatus.OK))
+        // The cached course carries its version, so revalidating a cached course costs no query
+        String representation = CourseResponses.representation(accept);
+        String etag = course.map(courseOne -> CourseETags.of(courseOne, representation)).orElse(null);
+        if (etag != null && CourseETags.matchesAny(ifNoneMatch, etag)) {
+            return CourseResponses.notModified(etag);
+        }
+
+        return course.map(courseOne -> CourseResponses.withValidators(ResponseEntity.ok(), courseOne, representation)
+                        .body(courseOne))
                 .orElseThrow(() -> new CourseNotFoundException("No Courses are available.."));
 
     }
@@ -69,28 +243,67 @@ public class CourseController {
                 .build();
     }
 
+    // http://localhost:8080/api/courses/bulk?mode=upsert
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Create or Upsert Courses in bulk from a JSON array, NDJSON stream or CBOR")
+    public ResponseEntity<@NonNull BulkWriteReport> bulkWriteCourses(@RequestParam(defaultValue = "insert") String mode,
+                                                                    @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                                    InputStream body) {
+        BulkMode bulkMode = BulkMode.fromParameter(mode);
+        // The iterator unwraps a top-level array or reads consecutive documents, one course at a time
+        try (MappingIterator<Course> courses = bulkCourseReaders.forContentType(contentType).readValues(body)) {
+            return ResponseEntity.ok(service.bulkWrite(courses, bulkMode));
+        } catch (JacksonException e) {
+            throw new InvalidRequestException("Malformed bulk payload, courses in earlier chunks may already be written: "
+                    + e.getOriginalMessage());
+        }
+    }
+
+    // http://localhost:8080/api/courses/bulk?mode=upsert&async=true
+    @PostMapping(value = "/bulk", params = "async=true", consumes = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Create or Upsert Courses in bulk as a background job")
+    public ResponseEntity<@NonNull Job> bulkWriteCoursesAsync(@RequestParam(defaultValue = "insert") String mode,
+                                                             @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                             InputStream body) {
+        return CourseResponses.accepted(courseJobs.importCourses(body, BulkMode.fromParameter(mode),
+                bulkCourseReaders.forContentType(contentType)));
+    }
+
+    // http://localhost:8080/api/courses/title-index/rebuild
+    @PostMapping("/title-index/rebuild")
+    @Operation(summary = "Reload the course title index as a background job")
+    public ResponseEntity<@NonNull Job> rebuildTitleIndex() {
+        return CourseResponses.accepted(courseJobs.rebuildTitleIndex());
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update Course By Id")
-    public ResponseEntity<@NonNull Optional<Course>> updateCourse(@PathVariable("id") String id,
-                                                         @RequestBody Course course) {
-        var courseData = service.findById(id);
-
-        if (courseData.isPresent()) {
-            Course updateCourse = courseData.get();
-            updateCourse.setTitle(course.getTitle());
-            updateCourse.setDescription(course.getDescription());
-            updateCourse.setPublished(course.isPublished());
-            return new ResponseEntity<>(service.createCourse(updateCourse), HttpStatus.OK);
-        } else {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
+    public ResponseEntity<@NonNull Course> updateCourse(@PathVariable("id") String id,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                        @Nullable String ifMatch,
+                                                        @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+                                                        @Nullable String accept,
+                                                        @RequestBody Course course) {
+        return applyUpdate(id, ifMatch, accept, CourseUpdate.from(course));
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Partially Update Course By Id")
+    public ResponseEntity<@NonNull Course> patchCourse(@PathVariable("id") String id,
+                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                       @Nullable String ifMatch,
+                                                       @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+                                                       @Nullable String accept,
+                                                       @RequestBody CourseUpdate changes) {
+        return applyUpdate(id, ifMatch, accept, changes);
     }
 
     @DeleteMapping
-    @Operation(summary = "Delete All Courses")
-    public ResponseEntity<@NonNull Void> deleteAllCourses() {
-        service.deleteAllCourses();
-        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    @Operation(summary = "Delete All Courses as a background job")
+    public ResponseEntity<@NonNull Job> deleteAllCourses() {
+        return CourseResponses.accepted(courseJobs.deleteAllCourses());
     }
 
     @DeleteMapping("/{id}")
@@ -100,4 +313,30 @@ public class CourseController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    private ResponseEntity<@NonNull Course> applyUpdate(String id, @Nullable String ifMatch, @Nullable String accept,
+                                                        CourseUpdate changes) {
+        // One findAndModify: PUT sets or unsets every field, PATCH only the given ones, and with If-Match only at the
+        // expected version
+        Long expectedVersion = ifMatch != null ? CourseETags.expectedVersion(ifMatch) : null;
+
+        return service.updateCourse(id, changes, expectedVersion)
+                .map(updated -> CourseResponses.withValidators(ResponseEntity.ok(), updated,
+                        CourseResponses.representation(accept)).body(updated))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Returns the page tag when {@code If-None-Match} already holds it, {@code null} when the page must be sent.
+     * Revalidation only reads ids and versions; the requested page is loaded when it has changed.
+     */
+    private @Nullable String revalidatePage(@Nullable String after, @Nullable Integer limit,
+                                            @Nullable String ifNoneMatch, String variant) {
+        if (ifNoneMatch == null) {
+            return null;
+        }
+        CursorPage<CourseVersion> versions = service.findPageVersions(after, limit);
+        String etag = CourseETags.ofPage(versions.items(), versions.nextCursor(), variant);
+        return CourseETags.matchesAny(ifNoneMatch, etag) ? etag : null;
+    }
+
 }
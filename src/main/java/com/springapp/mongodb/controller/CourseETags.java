@@ -0,0 +1,94 @@
+package com.springapp.mongodb.controller;
+
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.model.CourseVersion;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Strong entity tags derived from the course {@code version} field.
+ * A single course is tagged with its version and, for other than JSON, its representation (e.g. {@code "3-cbor"});
+ * a page with a digest of its ids, versions, next cursor and representation variant (such as the selected fields
+ * and the negotiated media type).
+ */
+final class CourseETags {
+
+    private CourseETags() {
+    }
+
+    static @Nullable String of(@Nullable Long version, String representation) {
+        if (version == null) {
+            return null;
+        }
+        return "\"" + version + (representation.isEmpty() ? "" : "-" + representation) + "\"";
+    }
+
+    static @Nullable String of(Course course, String representation) {
+        return of(course.getVersion(), representation);
+    }
+
+    static String ofPage(List<CourseVersion> versions, @Nullable String nextCursor, String variant) {
+        MessageDigest digest = sha256();
+        digest.update((variant + "\n").getBytes(StandardCharsets.UTF_8));
+        for (CourseVersion version : versions) {
+            digest.update((version.id() + ":" + version.version() + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        if (nextCursor != null) {
+            digest.update(nextCursor.getBytes(StandardCharsets.UTF_8));
+        }
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header lists the tag (or {@code *}), i.e. the client's copy is current.
+     * Weak comparison, as required for {@code If-None-Match}.
+     */
+    static boolean matchesAny(@Nullable String ifNoneMatch, @Nullable String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the expected version out of an {@code If-Match} header, or {@code null} for {@code *}.
+     * A tag of any representation names the same version. Tags this API did not issue yield {@code -1}, which never
+     * matches a stored version.
+     */
+    static @Nullable Long expectedVersion(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.equals("*")) {
+            return null;
+        }
+        try {
+            // Strong comparison: weak or multiple tags are not a version we handed out
+            if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                String opaque = tag.substring(1, tag.length() - 1);
+                int representation = opaque.indexOf('-');
+                return Long.parseLong(representation < 0 ? opaque : opaque.substring(0, representation));
+            }
+        } catch (NumberFormatException ignored) {
+            // Not one of our tags
+        }
+        return -1L;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
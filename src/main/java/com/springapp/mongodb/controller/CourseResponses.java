@@ -0,0 +1,143 @@
+package com.springapp.mongodb.controller;
+
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.model.CourseVersion;
+import com.springapp.mongodb.model.CursorPage;
+import com.springapp.mongodb.model.Job;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Response headers shared by the course and job controllers.
+ */
+final class CourseResponses {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private CourseResponses() {
+    }
+
+    static CourseVersion versionOf(Course course) {
+        return new CourseVersion(course.getId(), course.getVersion());
+    }
+
+    /**
+     * The representation an {@code Accept} header negotiates for course bodies, as a tag variant: {@code "cbor"} when
+     * it prefers CBOR, {@code ""} for JSON, which is also what no or a wildcard {@code Accept} gets. Types are tried
+     * in the order Spring MVC picks a converter in, by quality and then specificity.
+     */
+    static String representation(@Nullable String accept) {
+        if (accept == null) {
+            return "";
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = new ArrayList<>(MediaType.parseMediaTypes(accept));
+            MimeTypeUtils.sortBySpecificity(acceptable);
+        } catch (IllegalArgumentException e) {
+            // Spring MVC answers an unreadable Accept itself, before any body is written
+            return "";
+        }
+        for (MediaType type : acceptable) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return "";
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return "cbor";
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Tags the page and, when there is a next page, links to it.
+     *
+     * @param request the current request URI; reactive callers capture it before subscribing, since the page
+     *                arrives on a driver thread that has no request bound to it
+     */
+    static <T> ResponseEntity.BodyBuilder page(UriComponentsBuilder request, CursorPage<T> page,
+                                               Function<T, CourseVersion> versionOf, String variant) {
+        List<CourseVersion> versions = page.items().stream().map(versionOf).toList();
+        var response = ResponseEntity.ok()
+                .eTag(CourseETags.ofPage(versions, page.nextCursor(), variant))
+                .varyBy(HttpHeaders.ACCEPT);
+        if (page.nextCursor() != null) {
+            var next = request
+                    .replaceQueryParam("after", page.nextCursor())
+                    .build()
+                    .toUri();
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor())
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response;
+    }
+
+    /**
+     * {@code 304 Not Modified} for a course or page tag, which depends on the negotiated representation.
+     */
+    static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
+
+    /**
+     * {@code 202 Accepted} pointing at the job's progress resource.
+     */
+    static ResponseEntity<Job> accepted(Job job) {
+        var location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/jobs/{id}")
+                .buildAndExpand(job.id())
+                .toUri();
+        return ResponseEntity.accepted()
+                .location(location)
+                .body(job);
+    }
+
+    /**
+     * Whether an {@code Accept-Encoding} header allows gzip, i.e. lists {@code gzip} or {@code *} without {@code q=0}.
+     */
+    static boolean acceptsGzip(@Nullable String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tags a course response for the representation it is sent in; JSON and CBOR share the URL, hence the {@code Vary}.
+     */
+    static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder response, Course course,
+                                                     String representation) {
+        String etag = CourseETags.of(course, representation);
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        response.varyBy(HttpHeaders.ACCEPT);
+        if (course.getLastModified() != null) {
+            response.lastModified(course.getLastModified());
+        }
+        return response;
+    }
+}
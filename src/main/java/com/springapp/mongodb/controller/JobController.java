@@ -0,0 +1,48 @@
+package com.springapp.mongodb.controller;
+
+import com.springapp.mongodb.exception.JobNotFoundException;
+import com.springapp.mongodb.job.JobService;
+import com.springapp.mongodb.model.Job;
+import io.swagger.v3.oas.annotations.Operation;
+import org.jspecify.annotations.NonNull;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin(origins = "http://localhost:8081")
+@RestController
+@RequestMapping("/api/jobs")
+public class JobController {
+
+    private final JobService service;
+
+    public JobController(JobService service) {
+        this.service = service;
+    }
+
+    // http://localhost:8080/api/jobs
+    @GetMapping
+    @Operation(summary = "Find All Background Jobs")
+    public ResponseEntity<@NonNull List<Job>> getAllJobs() {
+        return ResponseEntity.ok(service.findAll());
+    }
+
+    // http://localhost:8080/api/jobs/1
+    @GetMapping("/{id}")
+    @Operation(summary = "Find Background Job By Id, with its progress and throughput")
+    public ResponseEntity<@NonNull Job> getJobById(@PathVariable("id") String id) {
+        return service.findById(id)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new JobNotFoundException("No job with id " + id));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Cancel Background Job By Id")
+    public ResponseEntity<@NonNull Job> cancelJob(@PathVariable("id") String id) {
+        // Running jobs stop at their next chunk, so the returned status may still be RUNNING
+        return service.cancel(id)
+                .map(job -> ResponseEntity.accepted().body(job))
+                .orElseThrow(() -> new JobNotFoundException("No job with id " + id));
+    }
+}
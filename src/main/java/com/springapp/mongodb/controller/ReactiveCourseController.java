@@ -0,0 +1,178 @@
+package com.springapp.mongodb.controller;
+
+import com.springapp.mongodb.exception.CourseNotFoundException;
+import com.springapp.mongodb.exception.InvalidRequestException;
+import com.springapp.mongodb.job.CourseJobs;
+import com.springapp.mongodb.model.BulkMode;
+import com.springapp.mongodb.model.BulkWriteReport;
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.model.CourseUpdate;
+import com.springapp.mongodb.model.Job;
+import com.springapp.mongodb.service.ReactiveCourseService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.MappingIterator;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * The course API on the reactive Mongo driver, served by Spring MVC next to {@link CourseController}.
+ * Handlers return {@link Mono}/{@link Flux}, so no request thread waits on MongoDB; servlet filters such as
+ * <code>TraceIdFilter</code> still run on the way in, and context propagation carries the trace into driver callbacks.
+ */
+@CrossOrigin(origins = "http://localhost:8081")
+@RestController
+@RequestMapping("/api/reactive/courses")
+@ConditionalOnProperty(name = "courses.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveCourseController {
+
+    private final ReactiveCourseService service;
+    private final CourseJobs courseJobs;
+    private final BulkCourseReaders bulkCourseReaders;
+
+    public ReactiveCourseController(ReactiveCourseService service, CourseJobs courseJobs,
+                                    BulkCourseReaders bulkCourseReaders) {
+        this.service = service;
+        this.courseJobs = courseJobs;
+        this.bulkCourseReaders = bulkCourseReaders;
+    }
+
+    // http://localhost:8080/api/reactive/courses?limit=100&after=<cursor>
+    @GetMapping
+    @Operation(summary = "Find All Course Details, one page at a time (reactive)")
+    public Mono<ResponseEntity<@NonNull List<Course>>> getAllCourses(@RequestParam(required = false) @Nullable Integer limit,
+                                                                    @RequestParam(required = false) @Nullable String after,
+                                                                    @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+                                                                    @Nullable String accept) {
+        var request = ServletUriComponentsBuilder.fromCurrentRequest();
+        String variant = CourseResponses.representation(accept);
+        return service.findPage(after, limit)
+                .map(page -> CourseResponses.page(request, page, CourseResponses::versionOf, variant).body(page.items()));
+    }
+
+    // http://localhost:8080/api/reactive/courses/export
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream All Courses as newline-delimited JSON (reactive)")
+    public Flux<Course> exportCourses() {
+        // Each course is written and flushed as it arrives; a slow client stops demand, and with it the cursor
+        return service.streamAll();
+    }
+
+    // http://localhost:8080/api/reactive/courses/course-titles?title=boot
+    @GetMapping("/course-titles")
+    @Operation(summary = "Find courses By title (reactive)")
+    public Mono<ResponseEntity<@NonNull List<Course>>> getAllCoursesBasedOnTitle(@RequestParam String title) {
+        return service.findByTitleContaining(title)
+                .collectList()
+                .map(courses -> ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(courses));
+    }
+
+    // http://localhost:8080/api/reactive/courses/1
+    @GetMapping("/{id}")
+    @Operation(summary = "Find Course By Id (reactive)")
+    public Mono<ResponseEntity<@NonNull Course>> getCourseById(@PathVariable("id") String id,
+                                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                              @Nullable String ifNoneMatch,
+                                                              @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+                                                              @Nullable String accept) {
+        String representation = CourseResponses.representation(accept);
+        return service.findById(id)
+                .map(courseOne -> {
+                    // The cached course carries its version, so revalidating a cached course costs no query
+                    String etag = CourseETags.of(courseOne, representation);
+                    if (etag != null && CourseETags.matchesAny(ifNoneMatch, etag)) {
+                        return CourseResponses.<Course>notModified(etag);
+                    }
+                    return CourseResponses.withValidators(ResponseEntity.ok(), courseOne, representation).body(courseOne);
+                })
+                .switchIfEmpty(Mono.error(() -> new CourseNotFoundException("No Courses are available..")));
+    }
+
+    // http://localhost:8080/api/reactive/courses
+    @PostMapping
+    @Operation(summary = "Create a New Course (reactive)")
+    public Mono<ResponseEntity<@NonNull Void>> createCourse(@RequestBody Course course) {
+        var request = ServletUriComponentsBuilder.fromCurrentRequest();
+        return service.createCourse(course)
+                .map(created -> ResponseEntity.created(request.path("/{id}").buildAndExpand(created.getId()).toUri())
+                        .build());
+    }
+
+    // http://localhost:8080/api/reactive/courses/bulk?mode=upsert
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Create or Upsert Courses in bulk from a JSON array, NDJSON stream or CBOR (reactive)")
+    public Mono<ResponseEntity<@NonNull BulkWriteReport>> bulkWriteCourses(@RequestParam(defaultValue = "insert") String mode,
+                                                                          @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                                          InputStream body) {
+        BulkMode bulkMode = BulkMode.fromParameter(mode);
+        // MVC cannot hand the request body over as a Flux, so the iterator over the blocking stream becomes one:
+        // courses are parsed on boundedElastic only as the service asks for the next chunk
+        Flux<Course> courses = Flux.using(() -> bulkCourseReaders.forContentType(contentType).<Course>readValues(body),
+                        iterator -> Flux.fromIterable(() -> iterator), MappingIterator::close)
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorMap(JacksonException.class, e -> new InvalidRequestException(
+                        "Malformed bulk payload, courses in earlier chunks may already be written: " + e.getOriginalMessage()));
+        return service.bulkWrite(courses, bulkMode)
+                .map(ResponseEntity::ok);
+    }
+
+    @PutMapping("/{id}")
+    @Operation(summary = "Update Course By Id (reactive)")
+    public Mono<ResponseEntity<@NonNull Course>> updateCourse(@PathVariable("id") String id,
+                                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                             @Nullable String ifMatch,
+                                                             @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+                                                             @Nullable String accept,
+                                                             @RequestBody Course course) {
+        return applyUpdate(id, ifMatch, accept, CourseUpdate.from(course));
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Partially Update Course By Id (reactive)")
+    public Mono<ResponseEntity<@NonNull Course>> patchCourse(@PathVariable("id") String id,
+                                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                            @Nullable String ifMatch,
+                                                            @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+                                                            @Nullable String accept,
+                                                            @RequestBody CourseUpdate changes) {
+        return applyUpdate(id, ifMatch, accept, changes);
+    }
+
+    @DeleteMapping
+    @Operation(summary = "Delete All Courses as a background job (shared with the blocking API)")
+    public ResponseEntity<@NonNull Job> deleteAllCourses() {
+        // The same chunked, cancellable job as the blocking API; an unbounded deleteMany has no progress or cancel
+        return CourseResponses.accepted(courseJobs.deleteAllCourses());
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete Course By Id (reactive)")
+    public Mono<ResponseEntity<@NonNull Void>> deleteCourseById(@PathVariable("id") String id) {
+        return service.deleteCourseById(id)
+                .then(Mono.just(new ResponseEntity<>(HttpStatus.NO_CONTENT)));
+    }
+
+    private Mono<ResponseEntity<@NonNull Course>> applyUpdate(String id, @Nullable String ifMatch, @Nullable String accept,
+                                                              CourseUpdate changes) {
+        Long expectedVersion = ifMatch != null ? CourseETags.expectedVersion(ifMatch) : null;
+        String representation = CourseResponses.representation(accept);
+
+        return service.updateCourse(id, changes, expectedVersion)
+                .map(updated -> CourseResponses.withValidators(ResponseEntity.ok(), updated, representation).body(updated))
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+}
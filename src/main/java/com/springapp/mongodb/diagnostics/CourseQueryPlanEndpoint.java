@@ -0,0 +1,149 @@
+package com.springapp.mongodb.diagnostics;
+
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Projections;
+import com.springapp.mongodb.config.MongoFilterShape;
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.repository.CourseQueries;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * {@code GET /actuator/queryplans}: runs {@code explain} on every query shape the course repository sends and
+ * reports whether it scans the collection or an index, documents examined against returned, and execution time.
+ * <p>
+ * The queries come from {@link CourseQueries}, the same ones the repository runs, and are mapped by Spring Data's
+ * query mapper, so a keyset bound after a string id is explained as the {@code $or} MongoDB actually receives.
+ * Shapes are filled with an existing course's id and part of its title, so the plans match what real requests get.
+ * Indexed shapes are explained with {@code executionStats}, which executes them (never the delete); shapes that read
+ * every course by design only get the {@code queryPlanner} plan, so a call never scans the whole collection.
+ */
+@Component
+@Profile("!inmemory")
+@Endpoint(id = "queryplans")
+public class CourseQueryPlanEndpoint {
+
+    private final MongoOperations mongoOperations;
+    private final QueryMapper queryMapper;
+    private final MongoPersistentEntity<?> entity;
+
+    @Value("${courses.page.default-limit:100}")
+    private int pageLimit;
+
+    @Value("${courses.export.batch-size:500}")
+    private int exportBatchSize;
+
+    @Value("${courses.jobs.delete-chunk-size:1000}")
+    private int deleteChunkSize;
+
+    @Value("${courses.stats.prefix-length:1}")
+    private int prefixLength;
+
+    public CourseQueryPlanEndpoint(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+        this.queryMapper = new QueryMapper(mongoOperations.getConverter());
+        this.entity = mongoOperations.getConverter().getMappingContext().getRequiredPersistentEntity(Course.class);
+    }
+
+    @ReadOperation
+    public QueryPlanReport queryPlans() {
+        MongoCollection<Document> courses = mongoOperations.getCollection(mongoOperations.getCollectionName(Course.class));
+        Document sample = courses.find().projection(Projections.include("title")).first();
+        Object sampleId = sample != null ? sample.get("_id") : null;
+        String id = sampleId instanceof ObjectId objectId ? objectId.toHexString()
+                : sampleId != null ? sampleId.toString() : new ObjectId().toHexString();
+        String title = sample != null && sample.getString("title") != null ? sample.getString("title") : "course";
+        String word = title.substring(0, Math.min(4, title.length()));
+        Limit page = Limit.of(pageLimit + 1);
+
+        List<QueryPlan> plans = new ArrayList<>();
+        plans.add(find(courses, "findById", CourseQueries.byId(id), false));
+        plans.add(find(courses, "findAllByOrderByIdAsc", CourseQueries.page(null, page), false));
+        plans.add(find(courses, "findByIdGreaterThanOrderByIdAsc", CourseQueries.page(id, page), false));
+        plans.add(find(courses, "findVersionsByIdGreaterThanOrderByIdAsc",
+                CourseQueries.projected(CourseQueries.page(id, page), List.of()), false));
+        plans.add(find(courses, "findAllById", CourseQueries.byIds(List.of(id)), false));
+        plans.add(find(courses, "findByTitleContaining", CourseQueries.titleContaining(word), false));
+        plans.add(find(courses, "update", CourseQueries.byId(id, 0L), false));
+        // deleteChunk: the ids of the first chunk, then one delete by id
+        plans.add(find(courses, "findVersionsByOrderByIdAsc",
+                CourseQueries.projected(CourseQueries.page(null, Limit.of(deleteChunkSize)), List.of()), false));
+        plans.add(delete(courses, "deleteAllById", CourseQueries.byIds(List.of(id))));
+        plans.add(find(courses, "streamAll", CourseQueries.all(exportBatchSize), true));
+        plans.add(find(courses, "streamTitles", CourseQueries.titles(exportBatchSize), true));
+        plans.add(find(courses, "initializeMissingVersions", CourseQueries.missingVersions(), true));
+        plans.add(aggregate(courses, "aggregateStats", CourseQueries.stats(prefixLength)));
+
+        List<String> indexes = mongoOperations.indexOps(Course.class).getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .toList();
+        return new QueryPlanReport(indexes, plans.stream().anyMatch(QueryPlan::regression), plans);
+    }
+
+    private QueryPlan find(MongoCollection<Document> courses, String name, Query query, boolean fullScan) {
+        Document filter = queryMapper.getMappedObject(query.getQueryObject(), entity);
+        Document sort = queryMapper.getMappedSort(query.getSortObject(), entity);
+        FindIterable<Document> find = courses.find(filter).sort(sort);
+        if (!query.getFieldsObject().isEmpty()) {
+            find.projection(queryMapper.getMappedFields(query.getFieldsObject(), entity));
+        }
+        if (query.isLimited()) {
+            find.limit(query.getLimit());
+        }
+        String shape = shape(courses, filter) + (sort.isEmpty() ? "" : " sort " + sort.entrySet().stream()
+                .map(key -> key.getKey() + ": " + key.getValue())
+                .collect(Collectors.joining(", ", "{", "}")));
+        Document explain = find.explain(fullScan ? ExplainVerbosity.QUERY_PLANNER : ExplainVerbosity.EXECUTION_STATS);
+        return QueryPlan.from(name, shape, fullScan, explain);
+    }
+
+    /**
+     * Explains a multi-document delete; {@code explain} reports what the delete would do without removing anything.
+     */
+    private QueryPlan delete(MongoCollection<Document> courses, String name, Query query) {
+        Document filter = queryMapper.getMappedObject(query.getQueryObject(), entity);
+        Document explain = mongoOperations.executeCommand(new Document("explain",
+                new Document("delete", courses.getNamespace().getCollectionName())
+                        .append("deletes", List.of(new Document("q", filter).append("limit", 0))))
+                .append("verbosity", "executionStats"));
+        return QueryPlan.from(name, shape(courses, filter), false, explain);
+    }
+
+    // The stats pipeline groups every course, so it is a full scan by design
+    private static QueryPlan aggregate(MongoCollection<Document> courses, String name, List<Document> pipeline) {
+        String shape = pipeline.stream()
+                .map(stage -> stage.keySet().iterator().next())
+                .collect(Collectors.joining(", ", "[", "]"));
+        return QueryPlan.from(name, shape, true, courses.aggregate(pipeline).explain(ExplainVerbosity.QUERY_PLANNER));
+    }
+
+    private static String shape(MongoCollection<Document> courses, Document filter) {
+        return MongoFilterShape.of(filter.toBsonDocument(BsonDocument.class, courses.getCodecRegistry()));
+    }
+
+    /**
+     * @param regressions whether any query that should use an index scanned the collection
+     */
+    public record QueryPlanReport(List<String> indexes,
+                                  boolean regressions,
+                                  List<QueryPlan> queries) {
+    }
+}
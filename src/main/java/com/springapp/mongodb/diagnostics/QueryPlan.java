@@ -0,0 +1,102 @@
+package com.springapp.mongodb.diagnostics;
+
+import org.bson.Document;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * How MongoDB executed one course query shape, taken from its explain output. Plans explained with
+ * {@code queryPlanner} verbosity report zero for the execution counts.
+ *
+ * @param plan         {@code COLLSCAN} if any stage scans the collection, {@code IXSCAN} if the winning plan reads an
+ *                     index, otherwise the root stage (such as {@code EOF} on a missing collection)
+ * @param fullScan     whether the query reads every course by design, so a collection scan is expected
+ * @param regression   a collection scan on a query that should use an index
+ */
+public record QueryPlan(String query,
+                        String filter,
+                        String plan,
+                        @Nullable String index,
+                        List<String> stages,
+                        long keysExamined,
+                        long docsExamined,
+                        long returned,
+                        long executionTimeMillis,
+                        boolean fullScan,
+                        boolean regression) {
+
+    static QueryPlan from(String query, String filter, boolean fullScan, Document explain) {
+        explain = cursorStage(explain);
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+        List<String> stages = new ArrayList<>();
+        List<String> indexes = new ArrayList<>();
+        if (queryPlanner != null) {
+            collect(queryPlanner.get("winningPlan"), stages, indexes);
+        }
+
+        String plan;
+        String index = indexes.isEmpty() ? null : indexes.getFirst();
+        if (stages.contains("COLLSCAN")) {
+            plan = "COLLSCAN";
+        } else if (stages.stream().anyMatch(stage -> stage.contains("IXSCAN") || stage.equals("IDHACK"))) {
+            plan = "IXSCAN";
+            if (index == null) {
+                // _id lookups use the _id index without naming it
+                index = "_id_";
+            }
+        } else {
+            plan = stages.isEmpty() ? "UNKNOWN" : stages.getFirst();
+        }
+
+        Document stats = explain.get("executionStats", Document.class);
+        return new QueryPlan(query, filter, plan, index, stages,
+                count(stats, "totalKeysExamined"),
+                count(stats, "totalDocsExamined"),
+                count(stats, "nReturned"),
+                count(stats, "executionTimeMillis"),
+                fullScan,
+                plan.equals("COLLSCAN") && !fullScan);
+    }
+
+    /**
+     * Aggregations that MongoDB does not push down entirely report the plan of their first stage under
+     * {@code stages[0].$cursor}; finds and pushed-down pipelines report it at the top level.
+     */
+    private static Document cursorStage(Document explain) {
+        if (!explain.containsKey("queryPlanner") && explain.get("stages") instanceof List<?> stages
+                && !stages.isEmpty() && stages.getFirst() instanceof Document first
+                && first.get("$cursor") instanceof Document cursor) {
+            return cursor;
+        }
+        return explain;
+    }
+
+    /**
+     * Walks the plan tree root first; classic plans nest through {@code inputStage(s)}, slot-based ones add a
+     * {@code queryPlan} level on top.
+     */
+    private static void collect(@Nullable Object node, List<String> stages, List<String> indexes) {
+        if (node instanceof List<?> children) {
+            children.forEach(child -> collect(child, stages, indexes));
+            return;
+        }
+        if (!(node instanceof Document stage)) {
+            return;
+        }
+        if (stage.get("stage") instanceof String name) {
+            stages.add(name);
+        }
+        if (stage.get("indexName") instanceof String indexName) {
+            indexes.add(indexName);
+        }
+        collect(stage.get("queryPlan"), stages, indexes);
+        collect(stage.get("inputStage"), stages, indexes);
+        collect(stage.get("inputStages"), stages, indexes);
+    }
+
+    private static long count(@Nullable Document stats, String field) {
+        return stats != null && stats.get(field) instanceof Number number ? number.longValue() : 0;
+    }
+}
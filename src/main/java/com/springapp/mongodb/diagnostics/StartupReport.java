@@ -0,0 +1,83 @@
+package com.springapp.mongodb.diagnostics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Logs where startup time went once the application is ready: time from JVM start to {@code main}, the main startup
+ * phases, and the slowest bean creations, along with whether the run used AOT-generated bean definitions and a
+ * class-data-sharing archive. Comparing this line between a plain build and {@code mvn -Pstartup package} shows
+ * what each optimization buys. The full step timeline is at {@code /actuator/startup}.
+ */
+@Component
+public class StartupReport {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupReport.class);
+
+    // Reported in this order; steps Spring records more than once (such as config class parsing) are summed
+    private static final List<String> PHASES = List.of(
+            "spring.boot.application.environment-prepared",
+            "spring.boot.application.context-prepared",
+            "spring.context.config-classes.parse",
+            "spring.context.beans.post-process",
+            "spring.context.refresh");
+
+    @Value("${courses.startup.report.slowest-beans:10}")
+    private int slowestBeans;
+
+    @EventListener
+    void report(ApplicationReadyEvent event) {
+        RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+        long readyMillis = event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1;
+        boolean cds = runtime.getInputArguments().stream().anyMatch(argument -> argument.startsWith("-XX:SharedArchiveFile"));
+        StringBuilder report = new StringBuilder()
+                .append("Startup: ready ").append(runtime.getUptime()).append(" ms after JVM start, ")
+                .append(readyMillis).append(" ms after main; AOT ").append(AotDetector.useGeneratedArtifacts() ? "on" : "off")
+                .append(", CDS archive ").append(cds ? "on" : "off");
+
+        if (event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup) {
+            List<TimelineEvent> events = startup.getBufferedTimeline().getEvents();
+            Map<String, Duration> phases = new LinkedHashMap<>();
+            PHASES.forEach(phase -> phases.put(phase, Duration.ZERO));
+            events.forEach(timelineEvent -> phases.computeIfPresent(timelineEvent.getStartupStep().getName(),
+                    (name, total) -> total.plus(timelineEvent.getDuration())));
+            report.append("\n  phases: ").append(phases.entrySet().stream()
+                    .map(phase -> phase.getKey() + " " + phase.getValue().toMillis() + " ms")
+                    .collect(Collectors.joining(", ")));
+            // A bean's time includes the beans it pulled in as dependencies
+            report.append("\n  slowest beans: ").append(events.stream()
+                    .filter(timelineEvent -> timelineEvent.getStartupStep().getName().equals("spring.beans.instantiate"))
+                    .sorted(Comparator.comparing(TimelineEvent::getDuration).reversed())
+                    .limit(slowestBeans)
+                    .map(timelineEvent -> beanName(timelineEvent.getStartupStep()) + " " + timelineEvent.getDuration().toMillis() + " ms")
+                    .collect(Collectors.joining(", ")));
+        }
+        log.info(report.toString());
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (tag.getKey().equals("beanName")) {
+                return tag.getValue();
+            }
+        }
+        return "?";
+    }
+}
@@ -0,0 +1,8 @@
+package com.springapp.mongodb.exception;
+
+public class CreateQueueFullException extends RuntimeException {
+
+    public CreateQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,10 @@
 package com.springapp.mongodb.exception;
 
 import org.jspecify.annotations.NonNull;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -31,4 +35,66 @@ public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExce
 
         return new ResponseEntity<>(exceptionResponse, HttpStatus.NOT_FOUND);
     }
+
+    @ExceptionHandler(JobNotFoundException.class)
+    public final ResponseEntity<@NonNull ExceptionResponse> handleJobNotFoundException(JobNotFoundException jobNotFoundException,
+                                                                                       WebRequest request) {
+        var exceptionResponse = new ExceptionResponse(LocalDateTime.now(),
+                jobNotFoundException.getMessage(),
+                request.getDescription(false));
+
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public final ResponseEntity<@NonNull ExceptionResponse> handleInvalidRequestException(InvalidRequestException invalidRequestException,
+                                                                                          WebRequest request) {
+        var exceptionResponse = new ExceptionResponse(LocalDateTime.now(),
+                invalidRequestException.getMessage(),
+                request.getDescription(false));
+
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public final ResponseEntity<@NonNull ExceptionResponse> handleOptimisticLockingFailureException(OptimisticLockingFailureException optimisticLockingFailureException,
+                                                                                                    WebRequest request) {
+        var exceptionResponse = new ExceptionResponse(LocalDateTime.now(),
+                "Course was modified concurrently, fetch it again and retry",
+                request.getDescription(false));
+
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public final ResponseEntity<@NonNull ExceptionResponse> handleTaskRejectedException(TaskRejectedException taskRejectedException,
+                                                                                        WebRequest request) {
+        var exceptionResponse = new ExceptionResponse(LocalDateTime.now(),
+                "Too many background jobs are queued, retry later",
+                request.getDescription(false));
+
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(CreateQueueFullException.class)
+    public final ResponseEntity<@NonNull ExceptionResponse> handleCreateQueueFullException(CreateQueueFullException createQueueFullException,
+                                                                                           WebRequest request) {
+        var exceptionResponse = new ExceptionResponse(LocalDateTime.now(),
+                createQueueFullException.getMessage(),
+                request.getDescription(false));
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(exceptionResponse);
+    }
+
+    @ExceptionHandler(DuplicateKeyException.class)
+    public final ResponseEntity<@NonNull ExceptionResponse> handleDuplicateKeyException(DuplicateKeyException duplicateKeyException,
+                                                                                        WebRequest request) {
+        var exceptionResponse = new ExceptionResponse(LocalDateTime.now(),
+                "A course with this id already exists",
+                request.getDescription(false));
+
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.CONFLICT);
+    }
 }
@@ -2,36 +2,122 @@ package com.springapp.mongodb.health;
 
 import com.mongodb.client.MongoClient;
 import org.bson.Document;
+import org.jspecify.annotations.Nullable;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.health.contributor.AbstractHealthIndicator;
 import org.springframework.boot.health.contributor.Health;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports the outcome of the last MongoDB ping instead of pinging on every call, so probes and scrapers from every pod
+ * do not compete with requests for pooled connections. Spring Boot's task scheduler pings every
+ * {@code courses.health.mongo.interval} with a {@code courses.health.mongo.timeout} bound on the whole operation.
+ * A result older than {@code courses.health.mongo.stale-after} is reported {@code DOWN}, since it means the refresh
+ * itself has stopped.
+ */
 @Component
-public class CustomMongoHealthIndicator extends AbstractHealthIndicator {
+@Profile("!inmemory")
+public class CustomMongoHealthIndicator extends AbstractHealthIndicator implements SmartLifecycle {
 
     @Value("${spring.mongodb.database}")
     private String databaseName;
 
+    @Value("${courses.health.mongo.interval:10s}")
+    private Duration interval;
+
+    @Value("${courses.health.mongo.timeout:2s}")
+    private Duration timeout;
+
+    @Value("${courses.health.mongo.stale-after:60s}")
+    private Duration staleAfter;
+
     private final MongoClient mongoClient;
+    private final TaskScheduler taskScheduler;
+
+    private volatile @Nullable PingResult lastPing;
+    // Only touched by the refresh task, which never overlaps itself
+    private int consecutiveFailures;
+    private volatile @Nullable ScheduledFuture<?> refreshing;
 
-    public CustomMongoHealthIndicator(MongoClient mongoClient) {
+    public CustomMongoHealthIndicator(MongoClient mongoClient, TaskScheduler taskScheduler) {
         this.mongoClient = mongoClient;
+        this.taskScheduler = taskScheduler;
     }
 
     @Override
     protected void doHealthCheck(Health.Builder builder) {
-        try {
-            // Ping your actual database (course-db)
-            mongoClient.getDatabase(databaseName)
-                    .runCommand(new Document("ping", 1));
-            builder.up()
-                    .withDetail("MongoDB", "Connected")
+        PingResult ping = lastPing;
+        if (ping == null) {
+            builder.unknown()
+                    .withDetail("MongoDB", "Not checked yet")
                     .withDetail("Database", databaseName);
-        } catch (Exception e) {
+            return;
+        }
+
+        if (ping.error() == null) {
+            builder.up()
+                    .withDetail("MongoDB", "Connected");
+        } else {
             builder.down()
                     .withDetail("MongoDB", "Connection failed")
-                    .withDetail("Error", e.getMessage());
+                    .withDetail("Error", ping.error());
+        }
+        builder.withDetail("Database", databaseName)
+                .withDetail("pingLatencyMs", ping.latency().toMillis())
+                .withDetail("consecutiveFailures", ping.consecutiveFailures())
+                .withDetail("checkedAt", ping.checkedAt());
+
+        Duration age = Duration.between(ping.checkedAt(), Instant.now());
+        if (age.compareTo(staleAfter) > 0) {
+            builder.down()
+                    .withDetail("Error", "Last ping is " + age.toSeconds() + "s old, the health refresh is not running");
         }
     }
+
+    void refresh() {
+        Instant checkedAt = Instant.now();
+        long start = System.nanoTime();
+        String error = null;
+        try {
+            // The timeout covers server selection and connection checkout as well as the command
+            mongoClient.getDatabase(databaseName)
+                    .withTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .runCommand(new Document("ping", 1));
+            consecutiveFailures = 0;
+        } catch (RuntimeException e) {
+            consecutiveFailures++;
+            error = e.getMessage();
+        }
+        lastPing = new PingResult(checkedAt, Duration.ofNanos(System.nanoTime() - start), consecutiveFailures, error);
+    }
+
+    @Override
+    public void start() {
+        refreshing = taskScheduler.scheduleWithFixedDelay(this::refresh, interval);
+    }
+
+    @Override
+    public void stop() {
+        ScheduledFuture<?> current = refreshing;
+        if (current != null) {
+            current.cancel(true);
+            refreshing = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return refreshing != null;
+    }
+
+    private record PingResult(Instant checkedAt, Duration latency, int consecutiveFailures, @Nullable String error) {
+    }
 }
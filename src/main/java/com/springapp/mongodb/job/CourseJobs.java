@@ -0,0 +1,149 @@
+package com.springapp.mongodb.job;
+
+import com.springapp.mongodb.exception.InvalidRequestException;
+import com.springapp.mongodb.model.BulkMode;
+import com.springapp.mongodb.model.BulkWriteReport;
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.model.Job;
+import com.springapp.mongodb.model.JobType;
+import com.springapp.mongodb.search.CourseTitleIndex;
+import com.springapp.mongodb.service.CourseService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The course operations that are too long for a request thread, submitted as {@link JobService} jobs.
+ */
+@Service
+public class CourseJobs {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseJobs.class);
+
+    private final CourseService service;
+    private final CourseTitleIndex titleIndex;
+    private final JobService jobService;
+
+    @Value("${courses.jobs.delete-chunk-size:1000}")
+    private int deleteChunkSize;
+
+    public CourseJobs(CourseService service, CourseTitleIndex titleIndex, JobService jobService) {
+        this.service = service;
+        this.titleIndex = titleIndex;
+        this.jobService = jobService;
+    }
+
+    /**
+     * Deletes every course, one chunk per round trip, so no single operation holds a connection for long
+     * and a cancellation leaves the remaining courses in place. Courses created while the job runs may be
+     * deleted too.
+     */
+    public Job deleteAllCourses() {
+        return jobService.submit(JobType.DELETE_ALL_COURSES, context -> {
+            context.setTotal(service.count());
+            int deleted;
+            do {
+                context.checkCancelled();
+                deleted = service.deleteChunk(deleteChunkSize);
+                context.advance(deleted);
+            } while (deleted == deleteChunkSize);
+            return null;
+        });
+    }
+
+    public Job rebuildTitleIndex() {
+        if (!titleIndex.isEnabled()) {
+            throw new InvalidRequestException("The title index is disabled (courses.title-index.enabled=false)");
+        }
+        return jobService.submit(JobType.REBUILD_TITLE_INDEX, context -> {
+            context.setTotal(service.count());
+            // A cancelled rebuild keeps serving the current index
+            titleIndex.rebuild(() -> {
+                context.checkCancelled();
+                context.advance(1);
+            });
+            return null;
+        });
+    }
+
+    /**
+     * Copies the payload to a temporary file before returning, since the request body is gone once the
+     * request completes, then writes it as {@link CourseService#bulkWrite} would. A cancelled import stops
+     * after the chunk in flight and reports what was written; one cancelled while still queued only deletes
+     * the spooled payload.
+     *
+     * @param reader course reader for the payload's format
+     */
+    public Job importCourses(InputStream body, BulkMode mode, ObjectReader reader) {
+        Path spool;
+        try {
+            spool = Files.createTempFile("courses-import-", ".json");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not spool the bulk payload", e);
+        }
+        try {
+            Files.copy(body, spool, StandardCopyOption.REPLACE_EXISTING);
+            return jobService.submit(JobType.IMPORT_COURSES, context -> importSpooled(spool, mode, reader, context),
+                    () -> delete(spool));
+        } catch (IOException e) {
+            delete(spool);
+            throw new UncheckedIOException("Could not spool the bulk payload", e);
+        } catch (RuntimeException e) {
+            delete(spool);
+            throw e;
+        }
+    }
+
+    private BulkWriteReport importSpooled(Path spool, BulkMode mode, ObjectReader reader, JobContext context) {
+        try (MappingIterator<Course> courses = reader.readValues(spool)) {
+            return service.bulkWrite(new CountingIterator(courses, context), mode);
+        } catch (JacksonException e) {
+            throw new InvalidRequestException("Malformed bulk payload, courses in earlier chunks may already be written: "
+                    + e.getOriginalMessage());
+        } finally {
+            delete(spool);
+        }
+    }
+
+    private static void delete(Path spool) {
+        try {
+            Files.deleteIfExists(spool);
+        } catch (IOException e) {
+            log.warn("Could not delete bulk import spool file {}: {}", spool, e.getMessage());
+        }
+    }
+
+    /**
+     * Counts courses as the bulk writer pulls them and ends the input early once the job is cancelled.
+     */
+    private record CountingIterator(Iterator<Course> courses, JobContext context) implements Iterator<Course> {
+
+        @Override
+        public boolean hasNext() {
+            return !context.isCancelled() && courses.hasNext();
+        }
+
+        @Override
+        public Course next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Course course = courses.next();
+            context.advance(1);
+            return course;
+        }
+    }
+}
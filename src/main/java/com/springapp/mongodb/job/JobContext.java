@@ -0,0 +1,25 @@
+package com.springapp.mongodb.job;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Handed to the work of a background job to report progress and to notice cancellation.
+ * Work should check for cancellation between units (chunks, batches) so it stops at a consistent point.
+ */
+public interface JobContext {
+
+    void setTotal(long total);
+
+    void advance(long items);
+
+    boolean isCancelled();
+
+    /**
+     * @throws CancellationException when the job has been cancelled; the job then ends as {@code CANCELLED}
+     */
+    default void checkCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException("Job cancelled");
+        }
+    }
+}
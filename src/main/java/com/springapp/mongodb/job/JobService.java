@@ -0,0 +1,135 @@
+package com.springapp.mongodb.job;
+
+import com.springapp.mongodb.model.Job;
+import com.springapp.mongodb.model.JobType;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Runs long operations on the bounded {@code jobTaskExecutor} and keeps their progress for {@code /api/jobs}.
+ * <p>
+ * Jobs live in memory on the instance that accepted them and are forgotten once they have been finished for
+ * {@code courses.jobs.retention}. A full queue rejects new jobs with {@link TaskRejectedException} rather than
+ * piling up work.
+ */
+@Service
+public class JobService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobService.class);
+
+    private final TaskExecutor taskExecutor;
+    private final Map<String, RunningJob> jobs = new ConcurrentHashMap<>();
+
+    @Value("${courses.jobs.retention:1h}")
+    private Duration retention;
+
+    public JobService(@Qualifier("jobTaskExecutor") TaskExecutor taskExecutor) {
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Queues {@code work}; what it returns becomes the {@link Job#result()}.
+     *
+     * @throws TaskRejectedException when every job thread is busy and the queue is full
+     */
+    public Job submit(JobType type, Function<JobContext, @Nullable Object> work) {
+        return submit(type, work, () -> {
+        });
+    }
+
+    /**
+     * Queues {@code work} like {@link #submit(JobType, Function)} and runs {@code onDiscard} if the job is
+     * cancelled before it starts, so work that owns a resource, such as a spooled payload, can release it.
+     * A rejected job throws instead; the caller still owns the resource then.
+     *
+     * @throws TaskRejectedException when every job thread is busy and the queue is full
+     */
+    public Job submit(JobType type, Function<JobContext, @Nullable Object> work, Runnable onDiscard) {
+        forgetFinishedJobs();
+        RunningJob job = new RunningJob(UUID.randomUUID().toString(), type, Instant.now());
+        jobs.put(job.id(), job);
+        try {
+            taskExecutor.execute(() -> run(job, work, onDiscard));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id());
+            throw e;
+        }
+        return job.snapshot();
+    }
+
+    public Optional<Job> findById(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(RunningJob::snapshot);
+    }
+
+    public List<Job> findAll() {
+        return jobs.values().stream()
+                .map(RunningJob::snapshot)
+                .sorted(Comparator.comparing(Job::submittedAt))
+                .toList();
+    }
+
+    /**
+     * Asks the job to stop. Queued jobs never start; running jobs stop at their next cancellation check.
+     */
+    public Optional<Job> cancel(String id) {
+        RunningJob job = jobs.get(id);
+        if (job == null) {
+            return Optional.empty();
+        }
+        job.cancel();
+        return Optional.of(job.snapshot());
+    }
+
+    private void run(RunningJob job, Function<JobContext, @Nullable Object> work, Runnable onDiscard) {
+        if (!job.start()) {
+            discard(job, onDiscard);
+            return;
+        }
+        log.info("Job {} ({}) started", job.id(), job.type());
+        try {
+            job.succeed(work.apply(job));
+        } catch (CancellationException e) {
+            job.cancelled();
+        } catch (RuntimeException e) {
+            log.warn("Job {} ({}) failed: {}", job.id(), job.type(), e.getMessage(), e);
+            job.fail(e);
+        } catch (Throwable e) {
+            // Still ends the job, which would otherwise report RUNNING and never be forgotten
+            log.error("Job {} ({}) failed: {}", job.id(), job.type(), e.toString(), e);
+            job.fail(e);
+            throw e;
+        }
+        Job outcome = job.snapshot();
+        log.info("Job {} ({}) {} after {} items", outcome.id(), outcome.type(), outcome.status(), outcome.processed());
+    }
+
+    private static void discard(RunningJob job, Runnable onDiscard) {
+        try {
+            onDiscard.run();
+        } catch (RuntimeException e) {
+            log.warn("Job {} ({}) could not release what it held: {}", job.id(), job.type(), e.getMessage(), e);
+        }
+    }
+
+    private void forgetFinishedJobs() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedBefore(cutoff));
+    }
+}
@@ -0,0 +1,115 @@
+package com.springapp.mongodb.job;
+
+import com.springapp.mongodb.model.Job;
+import com.springapp.mongodb.model.JobStatus;
+import com.springapp.mongodb.model.JobType;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Mutable state of one job. The job thread updates it while {@code /api/jobs} requests take snapshots.
+ */
+final class RunningJob implements JobContext {
+
+    private final String id;
+    private final JobType type;
+    private final Instant submittedAt;
+    private final AtomicReference<JobStatus> status = new AtomicReference<>(JobStatus.QUEUED);
+    private final AtomicLong processed = new AtomicLong();
+    private volatile @Nullable Long total;
+    private volatile boolean cancelled;
+    private volatile @Nullable Instant startedAt;
+    private volatile @Nullable Instant finishedAt;
+    private volatile @Nullable String error;
+    private volatile @Nullable Object result;
+
+    RunningJob(String id, JobType type, Instant submittedAt) {
+        this.id = id;
+        this.type = type;
+        this.submittedAt = submittedAt;
+    }
+
+    String id() {
+        return id;
+    }
+
+    JobType type() {
+        return type;
+    }
+
+    @Override
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    @Override
+    public void advance(long items) {
+        processed.addAndGet(items);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return {@code false} when the job was cancelled while queued and must not run
+     */
+    boolean start() {
+        if (!status.compareAndSet(JobStatus.QUEUED, JobStatus.RUNNING)) {
+            return false;
+        }
+        startedAt = Instant.now();
+        return true;
+    }
+
+    void cancel() {
+        cancelled = true;
+        // A queued job ends here; a running one ends once its work notices
+        if (status.compareAndSet(JobStatus.QUEUED, JobStatus.CANCELLED)) {
+            finishedAt = Instant.now();
+        }
+    }
+
+    void succeed(@Nullable Object result) {
+        this.result = result;
+        finish(cancelled ? JobStatus.CANCELLED : JobStatus.SUCCEEDED);
+    }
+
+    void fail(Throwable e) {
+        error = e.getMessage();
+        finish(JobStatus.FAILED);
+    }
+
+    void cancelled() {
+        finish(JobStatus.CANCELLED);
+    }
+
+    boolean finishedBefore(Instant instant) {
+        Instant finished = finishedAt;
+        return status.get().isFinished() && finished != null && finished.isBefore(instant);
+    }
+
+    Job snapshot() {
+        JobStatus current = status.get();
+        long done = processed.get();
+        Instant started = startedAt;
+        Instant finished = finishedAt;
+        double itemsPerSecond = 0;
+        if (started != null) {
+            long elapsedMillis = Duration.between(started, finished != null ? finished : Instant.now()).toMillis();
+            itemsPerSecond = done * 1000.0 / Math.max(elapsedMillis, 1);
+        }
+        return new Job(id, type, current, done, total, itemsPerSecond, submittedAt,
+                started, finished, error, result);
+    }
+
+    private void finish(JobStatus outcome) {
+        finishedAt = Instant.now();
+        status.set(outcome);
+    }
+}
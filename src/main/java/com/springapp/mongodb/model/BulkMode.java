@@ -0,0 +1,24 @@
+package com.springapp.mongodb.model;
+
+import com.springapp.mongodb.exception.InvalidRequestException;
+
+/**
+ * How {@code POST /api/courses/bulk} writes each course.
+ */
+public enum BulkMode {
+
+    /** Every course becomes a new document; duplicate ids are reported as failures. */
+    INSERT,
+
+    /** Courses with an id replace (or create) that document; courses without one are inserted. */
+    UPSERT;
+
+    public static BulkMode fromParameter(String value) {
+        for (BulkMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new InvalidRequestException("Unknown bulk mode: " + value);
+    }
+}
@@ -0,0 +1,34 @@
+package com.springapp.mongodb.model;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk ingest: totals across the request plus one entry per chunk sent to MongoDB.
+ */
+public record BulkWriteReport(long received,
+                              long written,
+                              long failed,
+                              List<ChunkResult> chunks) {
+
+    public record ChunkResult(int chunk,
+                              int size,
+                              int inserted,
+                              int upserted,
+                              int modified,
+                              int failed,
+                              List<ItemError> errors) {
+
+        public int written() {
+            return size - failed;
+        }
+    }
+
+    /**
+     * @param index position of the failed course within its chunk
+     * @param code  MongoDB write error code, {@code 11000} for a duplicate id
+     */
+    public record ItemError(int index,
+                            int code,
+                            String message) {
+    }
+}
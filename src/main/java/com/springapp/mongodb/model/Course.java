@@ -1,18 +1,36 @@
 package com.springapp.mongodb.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
+
 @Document(collection = "courses")
 public class Course {
 
     @Id
     private String id;
 
+    // An unanchored title regex cannot seek in this index, but it scans all of its keys and fetches only the matching
+    // documents, which is still cheaper than reading every document
+    @Indexed(name = "title")
     private String title;
     private String description;
     private boolean published;
 
+    // Maintained on every write; clients see them but cannot set them
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    @LastModifiedDate
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant lastModified;
+
     public Course() {
     }
 
@@ -26,6 +44,10 @@ public class Course {
         return id;
     }
 
+    public void setId(String id) {
+        this.id = id;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -50,6 +72,22 @@ public class Course {
         this.published = published;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
+
     @Override
     public String toString() {
         return "Course{" +
@@ -57,6 +95,8 @@ public class Course {
                 ", title='" + title + '\'' +
                 ", description='" + description + '\'' +
                 ", published=" + published +
+                ", version=" + version +
+                ", lastModified=" + lastModified +
                 '}';
     }
 }
@@ -0,0 +1,9 @@
+package com.springapp.mongodb.model;
+
+/**
+ * A course as it was before an update and as the update left it, so callers can tell which fields changed without
+ * reading the course again.
+ */
+public record CourseChange(Course before,
+                           Course after) {
+}
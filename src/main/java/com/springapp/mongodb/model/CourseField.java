@@ -0,0 +1,77 @@
+package com.springapp.mongodb.model;
+
+import com.springapp.mongodb.exception.InvalidRequestException;
+import org.jspecify.annotations.Nullable;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The {@link Course} properties a client may select with {@code ?fields=}.
+ */
+public enum CourseField {
+
+    ID("id", "_id"),
+    TITLE("title", "title"),
+    DESCRIPTION("description", "description"),
+    PUBLISHED("published", "published"),
+    VERSION("version", "version"),
+    LAST_MODIFIED("lastModified", "lastModified");
+
+    private final String property;
+    private final String documentField;
+
+    CourseField(String property, String documentField) {
+        this.property = property;
+        this.documentField = documentField;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public String documentField() {
+        return documentField;
+    }
+
+    /**
+     * The value of this field on an already loaded course, for stores that do not project themselves.
+     */
+    public @Nullable Object read(Course course) {
+        return switch (this) {
+            case ID -> course.getId();
+            case TITLE -> course.getTitle();
+            case DESCRIPTION -> course.getDescription();
+            case PUBLISHED -> course.isPublished();
+            case VERSION -> course.getVersion();
+            case LAST_MODIFIED -> course.getLastModified();
+        };
+    }
+
+    /**
+     * Parses a comma-separated list such as {@code id,title}, rejecting names that are not course properties.
+     */
+    public static Set<CourseField> parse(String fields) {
+        Set<CourseField> selected = EnumSet.noneOf(CourseField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            selected.add(fromProperty(trimmed));
+        }
+        if (selected.isEmpty()) {
+            throw new InvalidRequestException("fields must name at least one course field");
+        }
+        return selected;
+    }
+
+    private static CourseField fromProperty(String property) {
+        for (CourseField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new InvalidRequestException("Unknown course field: " + property);
+    }
+}
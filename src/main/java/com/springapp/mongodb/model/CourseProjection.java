@@ -0,0 +1,15 @@
+package com.springapp.mongodb.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Map;
+
+/**
+ * A course read with a field projection. Only {@code fields} is written to JSON; the id and version are
+ * always read so the result can still be paged and tagged.
+ */
+public record CourseProjection(String id,
+                               @Nullable Long version,
+                               @JsonValue Map<String, @Nullable Object> fields) {
+}
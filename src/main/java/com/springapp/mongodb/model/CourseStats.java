@@ -0,0 +1,31 @@
+package com.springapp.mongodb.model;
+
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Course counts for dashboards.
+ *
+ * @param titlePrefixes  number of courses per title prefix, of {@code courses.stats.prefix-length} characters; courses
+ *                       without a title count under the empty prefix
+ * @param reconciledAt   when these counts were last checked against the collection; writes since then are counted
+ *                       in process
+ */
+public record CourseStats(long total,
+                          long published,
+                          long unpublished,
+                          Map<String, Long> titlePrefixes,
+                          Instant reconciledAt) {
+
+    /**
+     * The first {@code length} code points of the title, the same way the aggregation's {@code $substrCP} cuts it.
+     */
+    public static String titlePrefix(@Nullable String title, int length) {
+        if (title == null) {
+            return "";
+        }
+        return title.substring(0, title.offsetByCodePoints(0, Math.min(length, title.codePointCount(0, title.length()))));
+    }
+}
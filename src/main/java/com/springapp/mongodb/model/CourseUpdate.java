@@ -0,0 +1,33 @@
+package com.springapp.mongodb.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Changes to apply to a stored {@link Course}. A partial update ({@code PATCH}) leaves {@code null} fields as they
+ * are; a replacement ({@code PUT}) writes every client-writable field and clears those that are {@code null}.
+ *
+ * @param replace whether this is a replacement; never read from a request body
+ */
+public record CourseUpdate(@Nullable String title,
+                           @Nullable String description,
+                           @Nullable Boolean published,
+                           @JsonIgnore boolean replace) {
+
+    @JsonCreator
+    public CourseUpdate(@Nullable String title, @Nullable String description, @Nullable Boolean published) {
+        this(title, description, published, false);
+    }
+
+    /**
+     * The changes a {@code PUT} of {@code course} makes: every client-writable field, {@code null} ones cleared.
+     */
+    public static CourseUpdate from(Course course) {
+        return new CourseUpdate(course.getTitle(), course.getDescription(), course.isPublished(), true);
+    }
+
+    public boolean isEmpty() {
+        return !replace && title == null && description == null && published == null;
+    }
+}
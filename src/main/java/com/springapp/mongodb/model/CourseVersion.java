@@ -0,0 +1,11 @@
+package com.springapp.mongodb.model;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Projection of a {@link Course} onto its id and version, enough to answer conditional requests
+ * without reading the rest of the document.
+ */
+public record CourseVersion(String id,
+                            @Nullable Long version) {
+}
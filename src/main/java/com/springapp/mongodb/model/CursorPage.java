@@ -0,0 +1,15 @@
+package com.springapp.mongodb.model;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * One keyset page of courses ordered by {@code _id}.
+ * {@code nextCursor} is an opaque token to pass back as {@code after}, or {@code null} on the last page.
+ *
+ * @param <T> how each course is represented: the full {@link Course}, a {@link CourseVersion} or a {@link CourseProjection}
+ */
+public record CursorPage<T>(List<T> items,
+                            @Nullable String nextCursor) {
+}
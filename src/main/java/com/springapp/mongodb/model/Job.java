@@ -0,0 +1,27 @@
+package com.springapp.mongodb.model;
+
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+
+/**
+ * Snapshot of a background job, as returned by {@code /api/jobs/{id}}.
+ *
+ * @param processed      items handled so far (courses deleted, written or indexed)
+ * @param total          items expected, or {@code null} when not known up front
+ * @param itemsPerSecond average throughput since the job started
+ * @param error          why the job failed, when it did
+ * @param result         job-specific outcome, e.g. the {@link BulkWriteReport} of an import
+ */
+public record Job(String id,
+                  JobType type,
+                  JobStatus status,
+                  long processed,
+                  @Nullable Long total,
+                  double itemsPerSecond,
+                  Instant submittedAt,
+                  @Nullable Instant startedAt,
+                  @Nullable Instant finishedAt,
+                  @Nullable String error,
+                  @Nullable Object result) {
+}
@@ -0,0 +1,20 @@
+package com.springapp.mongodb.model;
+
+public enum JobStatus {
+
+    /** Waiting for a free job thread. */
+    QUEUED,
+
+    RUNNING,
+
+    SUCCEEDED,
+
+    FAILED,
+
+    /** Stopped on request; work done before the cancellation is kept. */
+    CANCELLED;
+
+    public boolean isFinished() {
+        return this != QUEUED && this != RUNNING;
+    }
+}
@@ -0,0 +1,16 @@
+package com.springapp.mongodb.model;
+
+/**
+ * Long-running operations that run as background jobs instead of on the request thread.
+ */
+public enum JobType {
+
+    /** {@code DELETE /api/courses}: deletes the catalog one chunk at a time. */
+    DELETE_ALL_COURSES,
+
+    /** {@code POST /api/courses/bulk?async=true}: writes a spooled bulk payload. */
+    IMPORT_COURSES,
+
+    /** {@code POST /api/courses/title-index/rebuild}: reloads the title index from MongoDB. */
+    REBUILD_TITLE_INDEX
+}
@@ -0,0 +1,112 @@
+package com.springapp.mongodb.repository;
+
+import com.springapp.mongodb.model.Course;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecConfigurationException;
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+
+/**
+ * Reads and writes {@code courses} documents field by field, skipping the reflective {@code MappingMongoConverter}
+ * and the intermediate {@link org.bson.Document} it maps from.
+ * <p>
+ * Documents match what Spring Data writes for {@link Course}: the id is stored as an {@code ObjectId} when it is a
+ * valid ObjectId hex string and as a string otherwise, null properties are left out, and {@code _class} is written
+ * as the type hint. Reads accept the same documents, ignore {@code _class} and unknown fields, and widen numeric
+ * versions to {@code Long}, like the converter does.
+ * <p>
+ * Only reads go through this codec. Writes stay on {@code MongoTemplate}, which checks and bumps {@code @Version},
+ * fills in {@code @LastModifiedDate} and publishes the mapping events; a write path here would have to redo all of
+ * that, for calls that are dominated by the server round trip anyway. {@link #encode} exists because a driver
+ * {@code Codec} must encode, and is kept identical to the converter's output so the two can be compared and
+ * benchmarked side by side.
+ */
+public final class CourseCodec implements Codec<Course> {
+
+    private static final String TYPE_HINT = Course.class.getName();
+
+    @Override
+    public void encode(BsonWriter writer, Course course, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        String id = course.getId();
+        if (id != null) {
+            writer.writeName("_id");
+            if (ObjectId.isValid(id)) {
+                writer.writeObjectId(new ObjectId(id));
+            } else {
+                writer.writeString(id);
+            }
+        }
+        if (course.getTitle() != null) {
+            writer.writeString("title", course.getTitle());
+        }
+        if (course.getDescription() != null) {
+            writer.writeString("description", course.getDescription());
+        }
+        writer.writeBoolean("published", course.isPublished());
+        if (course.getVersion() != null) {
+            writer.writeInt64("version", course.getVersion());
+        }
+        if (course.getLastModified() != null) {
+            writer.writeDateTime("lastModified", course.getLastModified().toEpochMilli());
+        }
+        writer.writeString("_class", TYPE_HINT);
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Course decode(BsonReader reader, DecoderContext decoderContext) {
+        Course course = new Course();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String name = reader.readName();
+            if (reader.getCurrentBsonType() == BsonType.NULL) {
+                reader.readNull();
+                continue;
+            }
+            switch (name) {
+                case "_id" -> course.setId(readId(reader));
+                case "title" -> course.setTitle(reader.readString());
+                case "description" -> course.setDescription(reader.readString());
+                case "published" -> course.setPublished(reader.readBoolean());
+                case "version" -> course.setVersion(readLong(reader));
+                case "lastModified" -> course.setLastModified(Instant.ofEpochMilli(reader.readDateTime()));
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return course;
+    }
+
+    @Override
+    public Class<Course> getEncoderClass() {
+        return Course.class;
+    }
+
+    private static String readId(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case OBJECT_ID -> reader.readObjectId().toHexString();
+            case STRING -> reader.readString();
+            case INT32 -> String.valueOf(reader.readInt32());
+            case INT64 -> String.valueOf(reader.readInt64());
+            default -> throw new CodecConfigurationException(
+                    "Unsupported course _id type " + reader.getCurrentBsonType());
+        };
+    }
+
+    private static Long readLong(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case INT64 -> reader.readInt64();
+            case INT32 -> (long) reader.readInt32();
+            case DOUBLE -> (long) reader.readDouble();
+            default -> throw new CodecConfigurationException(
+                    "Unsupported course version type " + reader.getCurrentBsonType());
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package com.springapp.mongodb.repository;
+
+import com.springapp.mongodb.model.Course;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.core.TypeInformation;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Creates the indexes declared on {@link Course} once the application is ready, off the startup path, so building an
+ * index on a large collection never delays readiness. Creating an index that already exists is a no-op; indexes on the
+ * collection that {@link Course} does not declare are reported, never dropped.
+ */
+@Component
+@Profile("!inmemory")
+class CourseIndexes {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseIndexes.class);
+
+    private final MongoOperations mongoOperations;
+    private final TaskExecutor taskExecutor;
+
+    CourseIndexes(MongoOperations mongoOperations,
+                  @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.mongoOperations = mongoOperations;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void reconcile() {
+        taskExecutor.execute(() -> {
+            try {
+                createDeclaredIndexes();
+            } catch (RuntimeException e) {
+                log.warn("Could not reconcile course indexes: {}", e.getMessage());
+            }
+        });
+    }
+
+    private void createDeclaredIndexes() {
+        IndexOperations indexOperations = mongoOperations.indexOps(Course.class);
+        var resolver = new MongoPersistentEntityIndexResolver(mongoOperations.getConverter().getMappingContext());
+        Set<String> declared = new HashSet<>();
+        for (var index : resolver.resolveIndexFor(TypeInformation.of(Course.class))) {
+            try {
+                declared.add(indexOperations.createIndex(index.getIndexDefinition()));
+            } catch (RuntimeException e) {
+                // Typically an existing index with the same keys but other options; leave it for an operator
+                log.warn("Could not create course index {}: {}", index.getIndexKeys().toJson(), e.getMessage());
+            }
+        }
+        log.info("Course indexes in place: {}", declared);
+
+        indexOperations.getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .filter(name -> !name.equals("_id_") && !declared.contains(name))
+                .forEach(name -> log.info("Index {} on the course collection is not declared on Course", name));
+    }
+}
@@ -0,0 +1,42 @@
+package com.springapp.mongodb.repository;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.Comparator;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Keyset bounds over {@code _id} that hold when courses carry ids of more than one BSON type.
+ * <p>
+ * Spring Data stores a course id as an {@code ObjectId} when it is a valid ObjectId hex string and as a string
+ * otherwise, so both types appear once clients choose their own ids. MongoDB sorts all strings before all ObjectIds,
+ * but {@code $gt} only matches values of the bound's own type: a plain {@code _id > "spring-boot-4"} would end the
+ * walk at the last string id and never reach the ObjectIds. The type of the last id handed out follows from the id
+ * itself, so cursors stay plain ids; a bound after a string id also takes in the whole ObjectId range.
+ */
+final class CourseKeyset {
+
+    private static final ObjectId MIN_OBJECT_ID = new ObjectId(new byte[12]);
+
+    /**
+     * The {@code _id} order MongoDB sorts course ids in: string ids first, then ObjectIds. Lower-case ObjectId hex
+     * strings sort like the ObjectIds they encode.
+     */
+    static final Comparator<String> ID_ORDER = Comparator.comparing(ObjectId::isValid).thenComparing(Comparator.naturalOrder());
+
+    private CourseKeyset() {
+    }
+
+    /**
+     * Matches every course that sorts strictly after {@code id} in {@link #ID_ORDER}. Both branches of the
+     * {@code $or} are ranges on {@code _id}, so the sorted page is still served from the {@code _id} index.
+     */
+    static Criteria after(String id) {
+        if (ObjectId.isValid(id)) {
+            return where("id").gt(id);
+        }
+        return new Criteria().orOperator(where("id").gt(id), where("id").gte(MIN_OBJECT_ID));
+    }
+}
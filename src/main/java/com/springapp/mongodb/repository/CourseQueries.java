@@ -0,0 +1,87 @@
+package com.springapp.mongodb.repository;
+
+import org.bson.Document;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * The queries the course repositories send, built in one place so {@code CourseQueryPlanEndpoint} explains exactly
+ * what runs. Properties are named as on {@code Course}; the template's query mapper turns {@code id} into
+ * {@code _id} and id strings into ObjectIds. Each call returns a new query, so callers may add to it.
+ */
+public final class CourseQueries {
+
+    private CourseQueries() {
+    }
+
+    public static Query byId(String id) {
+        return new Query(where("id").is(id));
+    }
+
+    /**
+     * Matches the course only while it is still at {@code expectedVersion}, or at any version when that is
+     * {@code null}.
+     */
+    public static Query byId(String id, @Nullable Long expectedVersion) {
+        Criteria criteria = where("id").is(id);
+        if (expectedVersion != null) {
+            criteria.and("version").is(expectedVersion);
+        }
+        return new Query(criteria);
+    }
+
+    public static Query byIds(Collection<String> ids) {
+        return new Query(where("id").in(ids));
+    }
+
+    /**
+     * A keyset page in {@code _id} order, starting after {@code afterId} or at the first course.
+     */
+    public static Query page(@Nullable String afterId, Limit limit) {
+        Query query = new Query().with(Sort.by("id")).limit(limit);
+        if (afterId != null) {
+            query.addCriteria(CourseKeyset.after(afterId));
+        }
+        return query;
+    }
+
+    public static Query titleContaining(String title) {
+        return new Query(where("title").regex(Pattern.compile(Pattern.quote(title))));
+    }
+
+    public static Query all(int batchSize) {
+        return new Query().cursorBatchSize(batchSize);
+    }
+
+    public static Query titles(int batchSize) {
+        Query query = all(batchSize);
+        query.fields().include("title");
+        return query;
+    }
+
+    public static Query missingVersions() {
+        return new Query(where("version").exists(false));
+    }
+
+    /**
+     * Narrows {@code query} to the given properties and the version, which every projection carries.
+     */
+    public static Query projected(Query query, Collection<String> properties) {
+        properties.forEach(property -> query.fields().include(property));
+        query.fields().include("version");
+        return query;
+    }
+
+    public static List<Document> stats(int prefixLength) {
+        return CourseStatsPipeline.of(prefixLength);
+    }
+}
@@ -5,11 +5,6 @@ import org.jspecify.annotations.NonNull;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-
 @Repository
-public interface CourseRepository extends MongoRepository<@NonNull Course, @NonNull String> {
-
-    List<Course> findByTitleContaining(String title);
-
+public interface CourseRepository extends MongoRepository<@NonNull Course, @NonNull String>, CourseRepositoryCustom {
 }
@@ -0,0 +1,106 @@
+package com.springapp.mongodb.repository;
+
+import com.springapp.mongodb.model.BulkMode;
+import com.springapp.mongodb.model.BulkWriteReport;
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.model.CourseChange;
+import com.springapp.mongodb.model.CourseField;
+import com.springapp.mongodb.model.CourseProjection;
+import com.springapp.mongodb.model.CourseStats;
+import com.springapp.mongodb.model.CourseUpdate;
+import com.springapp.mongodb.model.CourseVersion;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.domain.Limit;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Course operations that need {@link org.springframework.data.mongodb.core.MongoOperations} directly
+ * rather than a derived query.
+ */
+public interface CourseRepositoryCustom {
+
+    // Whole-course reads, decoded by CourseCodec when courses.mongo.course-codec.enabled is true
+
+    List<Course> findByTitleContaining(String title);
+
+    // First keyset page: walks the _id index, never the whole collection
+    List<Course> findAllByOrderByIdAsc(Limit limit);
+
+    // Following keyset pages: resumes strictly after the last _id handed out, from string ids on into ObjectIds
+    List<Course> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+
+    // Version-only projections of the keyset pages, used to answer conditional requests
+
+    List<CourseVersion> findVersionsByOrderByIdAsc(Limit limit);
+
+    List<CourseVersion> findVersionsByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+
+    /**
+     * Streams every course over a server-side cursor, fetching {@code batchSize} documents per round trip.
+     * The returned stream holds the cursor open and must be closed by the caller.
+     */
+    Stream<Course> streamAll(int batchSize);
+
+    /**
+     * Keyset page ordered by {@code _id}, reading only the selected fields (plus id and version).
+     * Documents are not mapped into {@link Course}.
+     *
+     * @param afterId exclusive lower bound on the id, or {@code null} for the first page
+     */
+    List<CourseProjection> findPage(@Nullable String afterId, int limit, Set<CourseField> fields);
+
+    List<CourseProjection> findByIds(Collection<String> ids, Set<CourseField> fields);
+
+    List<CourseProjection> findByTitleContaining(String title, Set<CourseField> fields);
+
+    /**
+     * Like {@link #streamAll(int)} but only reads {@code _id} and {@code title}.
+     */
+    Stream<Course> streamTitles(int batchSize);
+
+    /**
+     * Sends one chunk as a single unordered bulk write, so a bad document does not stop the rest of the chunk.
+     * Courses without an id are assigned one before the write. Upserts bump the stored version like any other update.
+     *
+     * @param chunk   sequence number of the chunk, echoed back in the result
+     * @param courses the courses to write
+     * @param mode    whether courses carrying an id are inserted or upserted
+     */
+    BulkWriteReport.ChunkResult bulkWrite(int chunk, List<Course> courses, BulkMode mode);
+
+    /**
+     * Applies {@code changes} with a single {@code findAndModify}, bumping the version and last-modified time.
+     *
+     * @param expectedVersion when set, the update only applies to the document at exactly this version
+     * @return the course before and after the update, or empty when no course has this id
+     * @throws org.springframework.dao.OptimisticLockingFailureException when the course exists at another version
+     */
+    Optional<CourseChange> update(String id, CourseUpdate changes, @Nullable Long expectedVersion);
+
+    /**
+     * Deletes the course in one {@code findAndModify}, returning what was deleted.
+     *
+     * @return the deleted course, or empty when no course has this id
+     */
+    Optional<Course> findAndDeleteById(String id);
+
+    /**
+     * Counts courses in a single aggregation over the collection: in total, published, and per title prefix of
+     * {@code prefixLength} characters.
+     */
+    CourseStats aggregateStats(int prefixLength);
+
+    /**
+     * Gives documents written before courses were versioned an initial version, so they get ETags
+     * and take part in optimistic locking.
+     *
+     * @return number of documents updated
+     */
+    long initializeMissingVersions();
+
+}
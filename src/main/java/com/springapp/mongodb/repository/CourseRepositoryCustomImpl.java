@@ -0,0 +1,275 @@
+package com.springapp.mongodb.repository;
+
+import com.springapp.mongodb.model.BulkMode;
+import com.springapp.mongodb.model.BulkWriteReport;
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.model.CourseChange;
+import com.springapp.mongodb.model.CourseField;
+import com.springapp.mongodb.model.CourseProjection;
+import com.springapp.mongodb.model.CourseStats;
+import com.springapp.mongodb.model.CourseUpdate;
+import com.springapp.mongodb.model.CourseVersion;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.types.ObjectId;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.support.PersistenceExceptionTranslator;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+class CourseRepositoryCustomImpl implements CourseRepositoryCustom {
+
+    /**
+     * Built once, so the registry's codec lookups are cached across queries. The driver's default codecs cover every
+     * value a mapped filter, sort or projection can hold.
+     */
+    private static final CodecRegistry COURSE_CODECS = CodecRegistries.fromRegistries(
+            CodecRegistries.fromCodecs(new CourseCodec()), MongoClientSettings.getDefaultCodecRegistry());
+
+    private final MongoOperations mongoOperations;
+    private final boolean courseCodec;
+    private final QueryMapper queryMapper;
+    private final MongoPersistentEntity<?> entity;
+    private final PersistenceExceptionTranslator exceptionTranslator = new MongoExceptionTranslator();
+
+    CourseRepositoryCustomImpl(MongoOperations mongoOperations,
+                               @Value("${courses.mongo.course-codec.enabled:false}") boolean courseCodec) {
+        this.mongoOperations = mongoOperations;
+        this.courseCodec = courseCodec;
+        this.queryMapper = new QueryMapper(mongoOperations.getConverter());
+        this.entity = mongoOperations.getConverter().getMappingContext().getRequiredPersistentEntity(Course.class);
+    }
+
+    @Override
+    public List<Course> findByTitleContaining(String title) {
+        return find(CourseQueries.titleContaining(title));
+    }
+
+    @Override
+    public List<Course> findAllByOrderByIdAsc(Limit limit) {
+        return find(CourseQueries.page(null, limit));
+    }
+
+    @Override
+    public List<Course> findByIdGreaterThanOrderByIdAsc(String id, Limit limit) {
+        return find(CourseQueries.page(id, limit));
+    }
+
+    @Override
+    public List<CourseVersion> findVersionsByOrderByIdAsc(Limit limit) {
+        return versions(CourseQueries.page(null, limit));
+    }
+
+    @Override
+    public List<CourseVersion> findVersionsByIdGreaterThanOrderByIdAsc(String id, Limit limit) {
+        return versions(CourseQueries.page(id, limit));
+    }
+
+    @Override
+    public Stream<Course> streamAll(int batchSize) {
+        return stream(CourseQueries.all(batchSize));
+    }
+
+    @Override
+    public List<CourseProjection> findPage(@Nullable String afterId, int limit, Set<CourseField> fields) {
+        return project(CourseQueries.page(afterId, Limit.of(limit)), fields);
+    }
+
+    @Override
+    public List<CourseProjection> findByIds(Collection<String> ids, Set<CourseField> fields) {
+        return project(CourseQueries.byIds(ids), fields);
+    }
+
+    @Override
+    public List<CourseProjection> findByTitleContaining(String title, Set<CourseField> fields) {
+        return project(CourseQueries.titleContaining(title), fields);
+    }
+
+    @Override
+    public Stream<Course> streamTitles(int batchSize) {
+        return stream(CourseQueries.titles(batchSize));
+    }
+
+    @Override
+    public BulkWriteReport.ChunkResult bulkWrite(int chunk, List<Course> courses, BulkMode mode) {
+        BulkOperations operations = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, Course.class);
+        Instant now = Instant.now();
+        for (Course course : courses) {
+            if (mode == BulkMode.UPSERT && course.getId() != null) {
+                operations.upsert(CourseQueries.byId(course.getId()), CourseWrites.upsert(course, now));
+            } else {
+                operations.insert(CourseWrites.prepareInsert(course, now));
+            }
+        }
+
+        try {
+            return CourseWrites.chunkResult(chunk, courses.size(), operations.execute());
+        } catch (BulkOperationException e) {
+            return CourseWrites.chunkResult(chunk, courses.size(), e);
+        }
+    }
+
+    @Override
+    public Optional<CourseChange> update(String id, CourseUpdate changes, @Nullable Long expectedVersion) {
+        Instant now = CourseWrites.now();
+        Course before = mongoOperations.findAndModify(CourseQueries.byId(id, expectedVersion),
+                CourseWrites.update(changes, now), FindAndModifyOptions.options().returnNew(false), Course.class);
+
+        // Only a miss on a conditional update costs a second round trip, to tell "gone" from "changed"
+        if (before == null && expectedVersion != null && mongoOperations.exists(CourseQueries.byId(id), Course.class)) {
+            throw new OptimisticLockingFailureException("Course " + id + " is no longer at version " + expectedVersion);
+        }
+        return Optional.ofNullable(before).map(course -> new CourseChange(course, CourseWrites.applied(course, changes, now)));
+    }
+
+    @Override
+    public Optional<Course> findAndDeleteById(String id) {
+        return Optional.ofNullable(mongoOperations.findAndRemove(CourseQueries.byId(id), Course.class));
+    }
+
+    @Override
+    public CourseStats aggregateStats(int prefixLength) {
+        Document counts = mongoOperations.getCollection(mongoOperations.getCollectionName(Course.class))
+                .aggregate(CourseQueries.stats(prefixLength))
+                .first();
+        return CourseStatsPipeline.toStats(counts);
+    }
+
+    @Override
+    public long initializeMissingVersions() {
+        return mongoOperations.updateMulti(CourseQueries.missingVersions(),
+                        new Update().set("version", 0L).set("lastModified", Instant.now()),
+                        Course.class)
+                .getModifiedCount();
+    }
+
+    private List<Course> find(Query query) {
+        if (!courseCodec) {
+            return mongoOperations.find(query, Course.class);
+        }
+        return mongoOperations.execute(Course.class, collection -> decoded(collection, query).into(new ArrayList<>()));
+    }
+
+    private Stream<Course> stream(Query query) {
+        if (!courseCodec) {
+            return mongoOperations.stream(query, Course.class);
+        }
+        MongoCursor<Course> cursor = mongoOperations.execute(Course.class, collection -> decoded(collection, query).cursor());
+        // Translate errors while iterating too, as the template's own streams do
+        Iterator<Course> courses = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return cursor.hasNext();
+                } catch (RuntimeException e) {
+                    throw translate(e);
+                }
+            }
+
+            @Override
+            public Course next() {
+                try {
+                    return cursor.next();
+                } catch (RuntimeException e) {
+                    throw translate(e);
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(courses, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(cursor::close);
+    }
+
+    /**
+     * Runs {@code query} with documents decoded by {@link CourseCodec} instead of the mapping converter. The filter,
+     * sort and projection still go through the converter's query mapper, so {@code id} becomes {@code _id} and id
+     * strings become ObjectIds exactly as in template queries.
+     */
+    private FindIterable<Course> decoded(MongoCollection<Document> collection, Query query) {
+        FindIterable<Course> find = collection
+                .withCodecRegistry(COURSE_CODECS)
+                .find(queryMapper.getMappedObject(query.getQueryObject(), entity), Course.class);
+        if (!query.getSortObject().isEmpty()) {
+            find.sort(queryMapper.getMappedSort(query.getSortObject(), entity));
+        }
+        if (!query.getFieldsObject().isEmpty()) {
+            find.projection(queryMapper.getMappedFields(query.getFieldsObject(), entity));
+        }
+        if (query.isLimited()) {
+            find.limit(query.getLimit());
+        }
+        if (query.getMeta().getCursorBatchSize() != null) {
+            find.batchSize(query.getMeta().getCursorBatchSize());
+        }
+        return find;
+    }
+
+    private RuntimeException translate(RuntimeException e) {
+        RuntimeException translated = exceptionTranslator.translateExceptionIfPossible(e);
+        return translated != null ? translated : e;
+    }
+
+    /**
+     * Reads raw documents so unselected fields are neither transferred nor mapped; the query is still
+     * mapped against {@link Course}, so {@code id} becomes {@code _id} and id strings become ObjectIds.
+     */
+    private List<CourseProjection> project(Query query, Set<CourseField> fields) {
+        return mongoOperations.query(Course.class)
+                .as(Document.class)
+                .matching(CourseQueries.projected(query, fields.stream().map(CourseField::property).toList()))
+                .all()
+                .stream()
+                .map(document -> toProjection(document, fields))
+                .toList();
+    }
+
+    private List<CourseVersion> versions(Query query) {
+        return project(query, Set.of()).stream()
+                .map(projection -> new CourseVersion(projection.id(), projection.version()))
+                .toList();
+    }
+
+    private static CourseProjection toProjection(Document document, Set<CourseField> fields) {
+        Map<String, @Nullable Object> values = new LinkedHashMap<>();
+        for (CourseField field : fields) {
+            Object value = document.get(field.documentField());
+            if (value instanceof ObjectId objectId) {
+                value = objectId.toHexString();
+            } else if (value instanceof Date date) {
+                value = date.toInstant();
+            }
+            values.put(field.property(), value);
+        }
+        Long version = document.get("version") instanceof Number number ? number.longValue() : null;
+        return new CourseProjection(String.valueOf(document.get("_id")), version, values);
+    }
+}
@@ -0,0 +1,53 @@
+package com.springapp.mongodb.repository;
+
+import com.springapp.mongodb.model.CourseStats;
+import org.bson.Document;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The aggregation behind {@link CourseRepositoryCustom#aggregateStats(int)}: one {@code $facet} stage groups the
+ * collection by published flag and by title prefix in a single pass, so only the counts leave the server.
+ */
+final class CourseStatsPipeline {
+
+    private CourseStatsPipeline() {
+    }
+
+    static List<Document> of(int prefixLength) {
+        Document byPublished = new Document("$group", new Document("_id", new Document("$eq", List.of("$published", true)))
+                .append("count", new Document("$sum", 1)));
+        Document byPrefix = new Document("$group", new Document("_id",
+                new Document("$substrCP", List.of(new Document("$ifNull", List.of("$title", "")), 0, prefixLength)))
+                .append("count", new Document("$sum", 1)));
+        return List.of(new Document("$facet", new Document("published", List.of(byPublished))
+                .append("prefixes", List.of(byPrefix))));
+    }
+
+    static CourseStats toStats(@Nullable Document counts) {
+        long published = 0;
+        long unpublished = 0;
+        Map<String, Long> prefixes = new TreeMap<>();
+        if (counts != null) {
+            for (Document group : counts.getList("published", Document.class, List.of())) {
+                if (Boolean.TRUE.equals(group.getBoolean("_id"))) {
+                    published = count(group);
+                } else {
+                    unpublished = count(group);
+                }
+            }
+            for (Document group : counts.getList("prefixes", Document.class, List.of())) {
+                prefixes.put(String.valueOf(group.get("_id")), count(group));
+            }
+        }
+        return new CourseStats(published + unpublished, published, unpublished, prefixes, Instant.now());
+    }
+
+    private static long count(Document group) {
+        return ((Number) group.get("count")).longValue();
+    }
+}
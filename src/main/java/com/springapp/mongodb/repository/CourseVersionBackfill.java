@@ -0,0 +1,42 @@
+package com.springapp.mongodb.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Versions courses stored before the {@code version} field existed. Without it such a document would be
+ * treated as new by {@code save} and could not be served with an ETag. Runs once per start, off the request path.
+ */
+@Component
+class CourseVersionBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseVersionBackfill.class);
+
+    private final CourseRepository repository;
+    private final TaskExecutor taskExecutor;
+
+    CourseVersionBackfill(CourseRepository repository,
+                          @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.repository = repository;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void backfill() {
+        taskExecutor.execute(() -> {
+            try {
+                long updated = repository.initializeMissingVersions();
+                if (updated > 0) {
+                    log.info("Initialized version on {} existing courses", updated);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not initialize course versions: {}", e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,141 @@
+package com.springapp.mongodb.repository;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.springapp.mongodb.model.BulkWriteReport;
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.model.CourseUpdate;
+import org.bson.types.ObjectId;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.LiteralOperators;
+import org.springframework.data.mongodb.core.aggregation.SetOperation;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Updates shared by the blocking and reactive repository fragments, so both stacks version and stamp courses the
+ * same way. The queries they apply to live in {@link CourseQueries}.
+ */
+final class CourseWrites {
+
+    private CourseWrites() {
+    }
+
+    /**
+     * {@code $set}s the changed fields, bumping the version and last-modified time. A replacement also
+     * {@code $unset}s the fields it leaves {@code null}; a partial update does not touch them.
+     */
+    static Update update(CourseUpdate changes, Instant now) {
+        Update update = new Update()
+                .inc("version", 1)
+                .set("lastModified", now);
+        setOrUnset(update, "title", changes.title(), changes.replace());
+        setOrUnset(update, "description", changes.description(), changes.replace());
+        setOrUnset(update, "published", changes.published(), changes.replace());
+        return update;
+    }
+
+    /**
+     * The course {@link #update(CourseUpdate, Instant)} leaves behind when applied to {@code before}, built here so
+     * the update can return the previous document instead of the new one.
+     */
+    static Course applied(Course before, CourseUpdate changes, Instant now) {
+        boolean replace = changes.replace();
+        Course after = new Course(
+                replace || changes.title() != null ? changes.title() : before.getTitle(),
+                replace || changes.description() != null ? changes.description() : before.getDescription(),
+                changes.published() != null ? changes.published() : !replace && before.isPublished());
+        after.setId(before.getId());
+        // $inc on a missing field starts from zero
+        after.setVersion(before.getVersion() != null ? before.getVersion() + 1 : 1L);
+        after.setLastModified(now);
+        return after;
+    }
+
+    /**
+     * Stored dates keep milliseconds, so a timestamp handed back without reading it matches the stored one.
+     */
+    static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    /**
+     * Replaces every client-writable field, leaving {@code null} ones out as an insert does, and starts a course it
+     * creates at version 0 as {@link #prepareInsert} does; an existing course moves to its next version. A pipeline,
+     * since {@code $inc} would start a new course at 1 and cannot share the field with {@code $setOnInsert}.
+     */
+    static AggregationUpdate upsert(Course course, Instant now) {
+        SetOperation set = SetOperation.set("published").toValue(course.isPublished())
+                .and().set("lastModified").toValue(now)
+                .and().set("version").toValue(ArithmeticOperators.valueOf(
+                        ConditionalOperators.ifNull("version").then(-1L)).add(1L));
+        List<String> cleared = new ArrayList<>();
+        set = setOrClear(set, cleared, "title", course.getTitle());
+        set = setOrClear(set, cleared, "description", course.getDescription());
+
+        AggregationUpdate update = AggregationUpdate.update().set(set);
+        return cleared.isEmpty() ? update : update.unset(cleared.toArray(String[]::new));
+    }
+
+    /**
+     * Bulk inserts do not write generated ids back, so ids are assigned up front for the caller.
+     */
+    static Course prepareInsert(Course course, Instant now) {
+        if (course.getId() == null) {
+            course.setId(new ObjectId().toHexString());
+        }
+        course.setVersion(0L);
+        course.setLastModified(now);
+        return course;
+    }
+
+    private static void setOrUnset(Update update, String field, @Nullable Object value, boolean replace) {
+        if (value != null) {
+            update.set(field, value);
+        } else if (replace) {
+            update.unset(field);
+        }
+    }
+
+    /**
+     * Strings are set as literals, since a pipeline would read a title such as {@code $price} as a field path.
+     */
+    private static SetOperation setOrClear(SetOperation set, List<String> cleared, String field, @Nullable String value) {
+        if (value == null) {
+            cleared.add(field);
+            return set;
+        }
+        return set.and().set(field).toValue(LiteralOperators.valueOf(value).asLiteral());
+    }
+
+    static BulkWriteReport.ChunkResult chunkResult(int chunk, int size, BulkWriteResult result) {
+        return chunkResult(chunk, size, result, List.of());
+    }
+
+    /**
+     * Unordered: everything except the reported items has been applied.
+     */
+    static BulkWriteReport.ChunkResult chunkResult(int chunk, int size, BulkOperationException e) {
+        List<BulkWriteReport.ItemError> errors = e.getErrors().stream()
+                .map(error -> new BulkWriteReport.ItemError(error.getIndex(), error.getCode(), error.getMessage()))
+                .toList();
+        return chunkResult(chunk, size, e.getResult(), errors);
+    }
+
+    private static BulkWriteReport.ChunkResult chunkResult(int chunk, int size, BulkWriteResult result,
+                                                           List<BulkWriteReport.ItemError> errors) {
+        return new BulkWriteReport.ChunkResult(chunk, size,
+                result.getInsertedCount(),
+                result.getUpserts().size(),
+                result.getModifiedCount(),
+                errors.size(),
+                errors);
+    }
+}
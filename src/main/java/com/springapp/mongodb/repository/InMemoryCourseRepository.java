@@ -0,0 +1,667 @@
+package com.springapp.mongodb.repository;
+
+import com.springapp.mongodb.model.BulkMode;
+import com.springapp.mongodb.model.BulkWriteReport;
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.model.CourseChange;
+import com.springapp.mongodb.model.CourseField;
+import com.springapp.mongodb.model.CourseProjection;
+import com.springapp.mongodb.model.CourseStats;
+import com.springapp.mongodb.model.CourseUpdate;
+import com.springapp.mongodb.model.CourseVersion;
+import org.bson.types.ObjectId;
+import org.jspecify.annotations.Nullable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.convert.DtoInstantiatingConverter;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.model.EntityInstantiators;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link CourseRepository} kept in process memory, selected with the {@code inmemory} profile so the application runs
+ * and can be measured without MongoDB. Nothing is persisted across restarts.
+ * <p>
+ * Courses live in a {@link ConcurrentHashMap} keyed by id, next to a {@link ConcurrentSkipListSet} of the ids that
+ * serves keyset pages in {@code _id} order, string ids before ObjectIds as MongoDB sorts them. Reads take no locks;
+ * every single-course write is one atomic map operation, so version checks behave like the conditional updates
+ * against MongoDB. Each of those operations also keeps the id index in step inside the map's own compute call, so
+ * no race leaves an id without its course. Stored courses are copied on the way in and out, so callers can no more
+ * change them in place than they could a document.
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryCourseRepository implements CourseRepository {
+
+    // The MongoDB error code of a duplicate key write error
+    private static final int DUPLICATE_KEY_CODE = 11000;
+
+    private final ConcurrentHashMap<String, Course> courses = new ConcurrentHashMap<>();
+    private final NavigableSet<String> ids = new ConcurrentSkipListSet<>(CourseKeyset.ID_ORDER);
+    // For query-by-example results read as another type
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+    private final MongoMappingContext mappingContext = mappingContext();
+    private final EntityInstantiators entityInstantiators = new EntityInstantiators();
+
+    // CourseRepositoryCustom
+
+    @Override
+    public List<Course> findByTitleContaining(String title) {
+        return scan(course -> course.getTitle() != null && course.getTitle().contains(title)).toList();
+    }
+
+    @Override
+    public List<Course> findAllByOrderByIdAsc(Limit limit) {
+        return page(ids, limit.max(), Function.identity());
+    }
+
+    @Override
+    public List<Course> findByIdGreaterThanOrderByIdAsc(String id, Limit limit) {
+        return page(ids.tailSet(id, false), limit.max(), Function.identity());
+    }
+
+    @Override
+    public List<CourseVersion> findVersionsByOrderByIdAsc(Limit limit) {
+        return page(ids, limit.max(), InMemoryCourseRepository::versionOf);
+    }
+
+    @Override
+    public List<CourseVersion> findVersionsByIdGreaterThanOrderByIdAsc(String id, Limit limit) {
+        return page(ids.tailSet(id, false), limit.max(), InMemoryCourseRepository::versionOf);
+    }
+
+    @Override
+    public Stream<Course> streamAll(int batchSize) {
+        return scan(course -> true);
+    }
+
+    @Override
+    public List<CourseProjection> findPage(@Nullable String afterId, int limit, Set<CourseField> fields) {
+        return page(afterId != null ? ids.tailSet(afterId, false) : ids, limit, course -> project(course, fields));
+    }
+
+    @Override
+    public List<CourseProjection> findByIds(Collection<String> ids, Set<CourseField> fields) {
+        return ids.stream()
+                .map(courses::get)
+                .filter(Objects::nonNull)
+                .map(course -> project(course, fields))
+                .toList();
+    }
+
+    @Override
+    public List<CourseProjection> findByTitleContaining(String title, Set<CourseField> fields) {
+        return scan(course -> course.getTitle() != null && course.getTitle().contains(title))
+                .map(course -> project(course, fields))
+                .toList();
+    }
+
+    @Override
+    public Stream<Course> streamTitles(int batchSize) {
+        return streamAll(batchSize);
+    }
+
+    @Override
+    public BulkWriteReport.ChunkResult bulkWrite(int chunk, List<Course> batch, BulkMode mode) {
+        Instant now = CourseWrites.now();
+        int inserted = 0;
+        int upserted = 0;
+        int modified = 0;
+        List<BulkWriteReport.ItemError> errors = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Course course = batch.get(i);
+            if (mode == BulkMode.UPSERT && course.getId() != null) {
+                boolean[] existed = new boolean[1];
+                courses.compute(course.getId(), (id, current) -> {
+                    existed[0] = current != null;
+                    ids.add(id);
+                    // Same outcome as the pipeline upsert: a new course starts at version 0, as an insert does
+                    Course next = copy(course);
+                    return stamp(next, current != null ? versionAfter(current) : 0L, now);
+                });
+                if (existed[0]) {
+                    modified++;
+                } else {
+                    upserted++;
+                }
+            } else {
+                CourseWrites.prepareInsert(course, now);
+                if (putNew(copy(course))) {
+                    inserted++;
+                } else {
+                    errors.add(new BulkWriteReport.ItemError(i, DUPLICATE_KEY_CODE, "Duplicate key: " + course.getId()));
+                }
+            }
+        }
+        return new BulkWriteReport.ChunkResult(chunk, batch.size(), inserted, upserted, modified, errors.size(), errors);
+    }
+
+    @Override
+    public Optional<CourseChange> update(String id, CourseUpdate changes, @Nullable Long expectedVersion) {
+        Instant now = CourseWrites.now();
+        Course[] before = new Course[1];
+        Course updated = courses.computeIfPresent(id, (key, current) -> {
+            if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+                throw new OptimisticLockingFailureException("Course " + id + " is no longer at version " + expectedVersion);
+            }
+            before[0] = current;
+            return CourseWrites.applied(current, changes, now);
+        });
+        return Optional.ofNullable(updated).map(after -> new CourseChange(copy(before[0]), copy(after)));
+    }
+
+    @Override
+    public Optional<Course> findAndDeleteById(String id) {
+        return Optional.ofNullable(removeById(id));
+    }
+
+    @Override
+    public CourseStats aggregateStats(int prefixLength) {
+        long published = 0;
+        long unpublished = 0;
+        Map<String, Long> prefixes = new TreeMap<>();
+        for (Course course : courses.values()) {
+            if (course.isPublished()) {
+                published++;
+            } else {
+                unpublished++;
+            }
+            prefixes.merge(CourseStats.titlePrefix(course.getTitle(), prefixLength), 1L, Long::sum);
+        }
+        return new CourseStats(published + unpublished, published, unpublished, prefixes, Instant.now());
+    }
+
+    @Override
+    public long initializeMissingVersions() {
+        // Everything stored here was written with a version
+        return 0;
+    }
+
+    // MongoRepository
+
+    @Override
+    public <S extends Course> S insert(S entity) {
+        Course stored = stamp(copy(entity), 0L, CourseWrites.now());
+        if (stored.getId() == null) {
+            stored.setId(new ObjectId().toHexString());
+        }
+        if (!putNew(stored)) {
+            throw new DuplicateKeyException("Duplicate key: " + stored.getId());
+        }
+        return writeBack(entity, stored);
+    }
+
+    @Override
+    public <S extends Course> List<S> insert(Iterable<S> entities) {
+        return StreamSupport.stream(entities.spliterator(), false).map(this::insert).toList();
+    }
+
+    /**
+     * Like {@code MongoTemplate.save} on a versioned entity: no version inserts, a version updates only that version.
+     */
+    @Override
+    public <S extends Course> S save(S entity) {
+        if (entity.getVersion() == null) {
+            return insert(entity);
+        }
+        Course stored = courses.compute(entity.getId(), (id, current) -> {
+            if (current == null || !entity.getVersion().equals(current.getVersion())) {
+                throw new OptimisticLockingFailureException("Course " + id + " is no longer at version " + entity.getVersion());
+            }
+            return stamp(copy(entity), versionAfter(current), CourseWrites.now());
+        });
+        return writeBack(entity, stored);
+    }
+
+    @Override
+    public <S extends Course> List<S> saveAll(Iterable<S> entities) {
+        return StreamSupport.stream(entities.spliterator(), false).map(this::save).toList();
+    }
+
+    @Override
+    public Optional<Course> findById(String id) {
+        return Optional.ofNullable(courses.get(id)).map(InMemoryCourseRepository::copy);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return courses.containsKey(id);
+    }
+
+    @Override
+    public List<Course> findAll() {
+        return scan(course -> true).toList();
+    }
+
+    @Override
+    public List<Course> findAllById(Iterable<String> ids) {
+        return StreamSupport.stream(ids.spliterator(), false)
+                .map(courses::get)
+                .filter(Objects::nonNull)
+                .map(InMemoryCourseRepository::copy)
+                .toList();
+    }
+
+    @Override
+    public List<Course> findAll(Sort sort) {
+        return scan(course -> true).sorted(comparator(sort)).toList();
+    }
+
+    @Override
+    public Page<Course> findAll(Pageable pageable) {
+        Stream<Course> sorted = scan(course -> true).sorted(comparator(pageable.getSort()));
+        List<Course> content = pageable.isPaged()
+                ? sorted.skip(pageable.getOffset()).limit(pageable.getPageSize()).toList()
+                : sorted.toList();
+        return new PageImpl<>(content, pageable, courses.size());
+    }
+
+    @Override
+    public long count() {
+        return courses.size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        removeById(id);
+    }
+
+    /**
+     * A versioned course is only deleted at that version, as {@code SimpleMongoRepository.delete} does.
+     */
+    @Override
+    public void delete(Course entity) {
+        if (entity.getVersion() == null) {
+            deleteById(entity.getId());
+            return;
+        }
+        courses.compute(entity.getId(), (id, current) -> {
+            if (current == null || !entity.getVersion().equals(current.getVersion())) {
+                throw new OptimisticLockingFailureException(
+                        "Course " + id + " is no longer at version " + entity.getVersion());
+            }
+            ids.remove(id);
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Course> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        ids.forEach(this::deleteById);
+    }
+
+    // Query by example, as a scan with the probe turned into a predicate
+
+    @Override
+    public <S extends Course> Optional<S> findOne(Example<S> example) {
+        return Optional.ofNullable(new ExampleQuery<>(matching(example), example.getProbeType()).oneValue());
+    }
+
+    @Override
+    public <S extends Course> List<S> findAll(Example<S> example) {
+        return new ExampleQuery<>(matching(example), example.getProbeType()).all();
+    }
+
+    @Override
+    public <S extends Course> List<S> findAll(Example<S> example, Sort sort) {
+        return new ExampleQuery<>(matching(example), example.getProbeType()).sortBy(sort).all();
+    }
+
+    @Override
+    public <S extends Course> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return new ExampleQuery<>(matching(example), example.getProbeType()).page(pageable);
+    }
+
+    @Override
+    public <S extends Course> long count(Example<S> example) {
+        return scan(matching(example)).count();
+    }
+
+    @Override
+    public <S extends Course> boolean exists(Example<S> example) {
+        return scan(matching(example)).findAny().isPresent();
+    }
+
+    @Override
+    public <S extends Course, R> R findBy(Example<S> example,
+                                         Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        return queryFunction.apply(new ExampleQuery<>(matching(example), example.getProbeType()));
+    }
+
+    /**
+     * Walks the id index from its start, so pages come back in {@code _id} order like the MongoDB queries.
+     * Ids removed between the index and the map lookup are skipped.
+     */
+    private <T> List<T> page(NavigableSet<String> from, int limit, Function<Course, T> mapper) {
+        List<T> page = new ArrayList<>(Math.min(limit, 1024));
+        for (String id : from) {
+            if (page.size() == limit) {
+                break;
+            }
+            Course course = courses.get(id);
+            if (course != null) {
+                page.add(mapper.apply(copy(course)));
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Stores a course under an id that is not taken yet, adding the id to the index in the same map operation.
+     *
+     * @return whether the course was stored
+     */
+    private boolean putNew(Course course) {
+        boolean[] stored = new boolean[1];
+        courses.compute(course.getId(), (id, current) -> {
+            if (current != null) {
+                return current;
+            }
+            ids.add(id);
+            stored[0] = true;
+            return course;
+        });
+        return stored[0];
+    }
+
+    /**
+     * Removes a course and its id in the same map operation, so no write can slip between the two.
+     */
+    private @Nullable Course removeById(String id) {
+        Course[] removed = new Course[1];
+        courses.computeIfPresent(id, (key, current) -> {
+            ids.remove(key);
+            removed[0] = current;
+            return null;
+        });
+        return removed[0];
+    }
+
+    private Stream<Course> scan(Predicate<Course> filter) {
+        return ids.stream()
+                .map(courses::get)
+                .filter(Objects::nonNull)
+                .filter(filter)
+                .map(InMemoryCourseRepository::copy);
+    }
+
+    private static CourseProjection project(Course course, Set<CourseField> fields) {
+        Map<String, @Nullable Object> values = new LinkedHashMap<>();
+        for (CourseField field : fields) {
+            values.put(field.property(), field.read(course));
+        }
+        return new CourseProjection(course.getId(), course.getVersion(), values);
+    }
+
+    private static CourseVersion versionOf(Course course) {
+        return new CourseVersion(course.getId(), course.getVersion());
+    }
+
+    private static long versionAfter(Course current) {
+        return current.getVersion() != null ? current.getVersion() + 1 : 0L;
+    }
+
+    private static Course stamp(Course course, long version, Instant now) {
+        course.setVersion(version);
+        course.setLastModified(now);
+        return course;
+    }
+
+    /**
+     * Copies the generated id, version and timestamp back, as the Mongo repository does on the saved instance.
+     */
+    private static <S extends Course> S writeBack(S entity, Course stored) {
+        entity.setId(stored.getId());
+        entity.setVersion(stored.getVersion());
+        entity.setLastModified(stored.getLastModified());
+        return entity;
+    }
+
+    private static Course copy(Course course) {
+        var copy = new Course(course.getTitle(), course.getDescription(), course.isPublished());
+        copy.setId(course.getId());
+        copy.setVersion(course.getVersion());
+        copy.setLastModified(course.getLastModified());
+        return copy;
+    }
+
+    /**
+     * The probe's properties as conditions, the way {@code MongoExampleMapper} turns them into a filter: {@code null}
+     * properties are left out unless the matcher includes nulls, and strings match per the matcher's string matching
+     * and case settings. The primitive {@code published} flag is never {@code null}, so it always takes part.
+     */
+    private static Predicate<Course> matching(Example<? extends Course> example) {
+        ExampleMatcher matcher = example.getMatcher();
+        List<Predicate<Course>> conditions = new ArrayList<>();
+        for (CourseField field : CourseField.values()) {
+            String path = field.property();
+            if (matcher.isIgnoredPath(path)) {
+                continue;
+            }
+            ExampleMatcher.PropertySpecifier specifier = matcher.getPropertySpecifiers().getForPath(path);
+            Object expected = field.read(example.getProbe());
+            if (specifier != null) {
+                expected = specifier.getPropertyValueTransformer().apply(Optional.ofNullable(expected)).orElse(null);
+            }
+            if (expected == null && matcher.getNullHandler() == ExampleMatcher.NullHandler.IGNORE) {
+                continue;
+            }
+            ExampleMatcher.StringMatcher stringMatcher = specifier != null && specifier.getStringMatcher() != null
+                    ? specifier.getStringMatcher()
+                    : matcher.getDefaultStringMatcher();
+            boolean ignoreCase = specifier != null && specifier.getIgnoreCase() != null
+                    ? specifier.getIgnoreCase()
+                    : matcher.isIgnoreCaseEnabled();
+            Object value = expected;
+            conditions.add(course -> matches(value, field.read(course), stringMatcher, ignoreCase));
+        }
+        Predicate<Course> ofProbeType = example.getProbeType()::isInstance;
+        if (conditions.isEmpty()) {
+            return ofProbeType;
+        }
+        return ofProbeType.and(matcher.isAllMatching()
+                ? course -> conditions.stream().allMatch(condition -> condition.test(course))
+                : course -> conditions.stream().anyMatch(condition -> condition.test(course)));
+    }
+
+    private static boolean matches(@Nullable Object expected, @Nullable Object actual,
+                                   ExampleMatcher.StringMatcher stringMatcher, boolean ignoreCase) {
+        if (expected == null || actual == null) {
+            return expected == actual;
+        }
+        if (!(expected instanceof String wanted) || !(actual instanceof String value)) {
+            return expected.equals(actual);
+        }
+        if (stringMatcher == ExampleMatcher.StringMatcher.REGEX) {
+            return Pattern.compile(wanted, ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0)
+                    .matcher(value).find();
+        }
+        if (ignoreCase) {
+            wanted = wanted.toLowerCase(Locale.ROOT);
+            value = value.toLowerCase(Locale.ROOT);
+        }
+        return switch (stringMatcher) {
+            case DEFAULT, EXACT -> value.equals(wanted);
+            case STARTING -> value.startsWith(wanted);
+            case ENDING -> value.endsWith(wanted);
+            case CONTAINING -> value.contains(wanted);
+            case REGEX -> throw new IllegalStateException("Handled above");
+        };
+    }
+
+    private static Comparator<Course> comparator(Sort sort) {
+        // Ties fall back to _id order, which is what the in-memory scan returns unsorted
+        Comparator<Course> comparator = (left, right) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<Course> byProperty = Comparator.comparing(course -> sortKey(course, order.getProperty()),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator.thenComparing(Course::getId, CourseKeyset.ID_ORDER);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static @Nullable Comparable<Object> sortKey(Course course, String property) {
+        for (CourseField field : CourseField.values()) {
+            if (field.property().equals(property)) {
+                return (Comparable<Object>) field.read(course);
+            }
+        }
+        // MongoDB sorts documents without the field as if it were null
+        return null;
+    }
+
+    /**
+     * Query-by-example results over a scan. {@code project} is accepted but whole courses are read, which the
+     * contract allows; {@code as} maps each course to an interface projection or a DTO, as the MongoDB repository does.
+     */
+    private final class ExampleQuery<T> implements FluentQuery.FetchableFluentQuery<T> {
+
+        private final Predicate<Course> filter;
+        private final Function<Course, T> mapper;
+        private final Sort sort;
+        private final int limit;
+
+        ExampleQuery(Predicate<Course> filter, Class<T> probeType) {
+            this(filter, probeType::cast, Sort.unsorted(), 0);
+        }
+
+        private ExampleQuery(Predicate<Course> filter, Function<Course, T> mapper, Sort sort, int limit) {
+            this.filter = filter;
+            this.mapper = mapper;
+            this.sort = sort;
+            this.limit = limit;
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> sortBy(Sort sort) {
+            return new ExampleQuery<>(filter, mapper, this.sort.and(sort), limit);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> limit(int limit) {
+            return new ExampleQuery<>(filter, mapper, sort, limit);
+        }
+
+        @Override
+        public <R> FluentQuery.FetchableFluentQuery<R> as(Class<R> resultType) {
+            return new ExampleQuery<>(filter, projecting(resultType), sort, limit);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> project(Collection<String> properties) {
+            return this;
+        }
+
+        @Override
+        public @Nullable T oneValue() {
+            List<T> found = results(sort).limit(2).toList();
+            if (found.size() > 1) {
+                throw new IncorrectResultSizeDataAccessException(1, found.size());
+            }
+            return found.isEmpty() ? null : found.getFirst();
+        }
+
+        @Override
+        public @Nullable T firstValue() {
+            return results(sort).findFirst().orElse(null);
+        }
+
+        @Override
+        public List<T> all() {
+            return stream().toList();
+        }
+
+        @Override
+        public Page<T> page(Pageable pageable) {
+            Stream<T> sorted = results(sort.and(pageable.getSort()));
+            List<T> content = pageable.isPaged()
+                    ? sorted.skip(pageable.getOffset()).limit(pageable.getPageSize()).toList()
+                    : sorted.toList();
+            return new PageImpl<>(content, pageable, count());
+        }
+
+        @Override
+        public Stream<T> stream() {
+            Stream<T> results = results(sort);
+            return limit > 0 ? results.limit(limit) : results;
+        }
+
+        @Override
+        public long count() {
+            return scan(filter).count();
+        }
+
+        @Override
+        public boolean exists() {
+            return scan(filter).findAny().isPresent();
+        }
+
+        private Stream<T> results(Sort order) {
+            Stream<Course> found = scan(filter);
+            return (order.isSorted() ? found.sorted(comparator(order)) : found).map(mapper);
+        }
+    }
+
+    // Treats the java.time and other converted types as simple values, as the MongoDB converter does
+    private static MongoMappingContext mappingContext() {
+        var mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        return mappingContext;
+    }
+
+    private <R> Function<Course, R> projecting(Class<R> resultType) {
+        if (resultType.isAssignableFrom(Course.class)) {
+            return resultType::cast;
+        }
+        if (resultType.isInterface()) {
+            return course -> projectionFactory.createProjection(resultType, course);
+        }
+        var converter = new DtoInstantiatingConverter(resultType, mappingContext, entityInstantiators);
+        return course -> resultType.cast(converter.convert(course));
+    }
+}
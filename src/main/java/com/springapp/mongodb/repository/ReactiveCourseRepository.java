@@ -0,0 +1,21 @@
+package com.springapp.mongodb.repository;
+
+import com.springapp.mongodb.model.Course;
+import org.jspecify.annotations.NonNull;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking counterpart of {@link CourseRepository}, backed by the reactive streams driver.
+ */
+@Repository
+public interface ReactiveCourseRepository extends ReactiveMongoRepository<@NonNull Course, @NonNull String>,
+        ReactiveCourseRepositoryCustom {
+
+    Flux<Course> findByTitleContaining(String title);
+
+    Flux<Course> findAllByOrderByIdAsc(Limit limit);
+
+}
@@ -0,0 +1,45 @@
+package com.springapp.mongodb.repository;
+
+import com.springapp.mongodb.model.BulkMode;
+import com.springapp.mongodb.model.BulkWriteReport;
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.model.CourseChange;
+import com.springapp.mongodb.model.CourseUpdate;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.domain.Limit;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Reactive counterparts of the {@link CourseRepositoryCustom} operations that the derived queries cannot express.
+ */
+public interface ReactiveCourseRepositoryCustom {
+
+    /**
+     * Same as {@link CourseRepositoryCustom#findByIdGreaterThanOrderByIdAsc(String, Limit)}.
+     */
+    Flux<Course> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+
+    /**
+     * Emits the whole collection over one cursor; demand from the subscriber decides when the next batch is fetched.
+     */
+    Flux<Course> streamAll(int batchSize);
+
+    /**
+     * Same as {@link CourseRepositoryCustom#bulkWrite(int, List, BulkMode)}.
+     */
+    Mono<BulkWriteReport.ChunkResult> bulkWrite(int chunk, List<Course> courses, BulkMode mode);
+
+    /**
+     * Same as {@link CourseRepositoryCustom#update(String, CourseUpdate, Long)}; completes empty when no course has this id.
+     */
+    Mono<CourseChange> update(String id, CourseUpdate changes, @Nullable Long expectedVersion);
+
+    /**
+     * Same as {@link CourseRepositoryCustom#findAndDeleteById(String)}; completes empty when no course has this id.
+     */
+    Mono<Course> findAndDeleteById(String id);
+
+}
@@ -0,0 +1,79 @@
+package com.springapp.mongodb.repository;
+
+import com.springapp.mongodb.model.BulkMode;
+import com.springapp.mongodb.model.BulkWriteReport;
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.model.CourseChange;
+import com.springapp.mongodb.model.CourseUpdate;
+import org.jspecify.annotations.Nullable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+class ReactiveCourseRepositoryCustomImpl implements ReactiveCourseRepositoryCustom {
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    ReactiveCourseRepositoryCustomImpl(ReactiveMongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public Flux<Course> findByIdGreaterThanOrderByIdAsc(String id, Limit limit) {
+        return mongoOperations.find(CourseQueries.page(id, limit), Course.class);
+    }
+
+    @Override
+    public Flux<Course> streamAll(int batchSize) {
+        return mongoOperations.find(CourseQueries.all(batchSize), Course.class);
+    }
+
+    @Override
+    public Mono<BulkWriteReport.ChunkResult> bulkWrite(int chunk, List<Course> courses, BulkMode mode) {
+        ReactiveBulkOperations operations = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, Course.class);
+        Instant now = Instant.now();
+        for (Course course : courses) {
+            if (mode == BulkMode.UPSERT && course.getId() != null) {
+                operations.upsert(CourseQueries.byId(course.getId()), CourseWrites.upsert(course, now));
+            } else {
+                operations.insert(CourseWrites.prepareInsert(course, now));
+            }
+        }
+
+        return operations.execute()
+                .map(result -> CourseWrites.chunkResult(chunk, courses.size(), result))
+                .onErrorResume(BulkOperationException.class,
+                        e -> Mono.just(CourseWrites.chunkResult(chunk, courses.size(), e)));
+    }
+
+    @Override
+    public Mono<CourseChange> update(String id, CourseUpdate changes, @Nullable Long expectedVersion) {
+        Instant now = CourseWrites.now();
+        Mono<CourseChange> updated = mongoOperations.findAndModify(CourseQueries.byId(id, expectedVersion),
+                        CourseWrites.update(changes, now), FindAndModifyOptions.options().returnNew(false), Course.class)
+                .map(before -> new CourseChange(before, CourseWrites.applied(before, changes, now)));
+        if (expectedVersion == null) {
+            return updated;
+        }
+        // As in the blocking fragment, only a miss on a conditional update checks whether the course still exists
+        return updated.switchIfEmpty(mongoOperations.exists(CourseQueries.byId(id), Course.class)
+                .flatMap(exists -> exists
+                        ? Mono.error(new OptimisticLockingFailureException(
+                                "Course " + id + " is no longer at version " + expectedVersion))
+                        : Mono.empty()));
+    }
+
+    @Override
+    public Mono<Course> findAndDeleteById(String id) {
+        return mongoOperations.findAndRemove(CourseQueries.byId(id), Course.class);
+    }
+}
@@ -0,0 +1,183 @@
+package com.springapp.mongodb.search;
+
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.repository.CourseRepository;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-process trigram index over course titles, used to answer {@code /course-titles} substring searches
+ * without an unanchored regex collection scan.
+ * <p>
+ * The index is loaded with a streaming scan once the application is ready and then kept current by
+ * {@code CourseServiceImpl} on every write. Until the first load completes {@link #search(String)} returns
+ * empty and callers fall back to the MongoDB query. Writes made by other instances are only picked up by
+ * a {@link #rebuild()}, so disable the index ({@code courses.title-index.enabled=false}) when several
+ * instances write to the same collection and strict freshness matters.
+ */
+@Component
+public class CourseTitleIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseTitleIndex.class);
+
+    private final CourseRepository repository;
+    private final TaskExecutor taskExecutor;
+
+    // Guards swapping the index and recording writes made while a rebuild is streaming
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile TrigramIndex index = new TrigramIndex();
+    private volatile boolean ready;
+    private @Nullable List<Consumer<TrigramIndex>> pendingWrites;
+
+    @Value("${courses.title-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${courses.title-index.load-batch-size:1000}")
+    private int loadBatchSize;
+
+    public CourseTitleIndex(CourseRepository repository,
+                            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.repository = repository;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        taskExecutor.execute(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Course title index could not be loaded, title searches keep using MongoDB: {}", e.getMessage());
+            }
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the ids of courses whose title contains {@code title}, or empty while the index is warming up.
+     */
+    public Optional<List<String>> search(String title) {
+        return ready ? Optional.of(index.search(title)) : Optional.empty();
+    }
+
+    public void put(Course course) {
+        if (course.getId() != null) {
+            apply(index -> index.put(course.getId(), course.getTitle()));
+        }
+    }
+
+    public void remove(String id) {
+        apply(index -> index.remove(id));
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            index = new TrigramIndex();
+            if (pendingWrites != null) {
+                // Anything streamed so far predates the clear
+                pendingWrites.add(TrigramIndex::clear);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reloads the index from MongoDB with a streaming scan of ids and titles. Searches keep being served
+     * from the current index meanwhile; writes made during the scan are replayed before the swap.
+     *
+     * @return number of indexed courses
+     */
+    public int rebuild() {
+        return rebuild(() -> {
+        });
+    }
+
+    /**
+     * Same as {@link #rebuild()}, calling {@code onCourse} after each streamed course. Anything thrown
+     * while streaming, by it or by the repository, abandons the rebuild and keeps the current index.
+     */
+    public int rebuild(Runnable onCourse) {
+        lock.lock();
+        try {
+            if (pendingWrites != null) {
+                throw new IllegalStateException("Title index rebuild already running");
+            }
+            pendingWrites = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+
+        TrigramIndex fresh = new TrigramIndex();
+        boolean swapped = false;
+        try {
+            try (Stream<Course> courses = repository.streamTitles(loadBatchSize)) {
+                courses.forEach(course -> {
+                    fresh.put(course.getId(), course.getTitle());
+                    onCourse.run();
+                });
+            }
+
+            lock.lock();
+            try {
+                pendingWrites.forEach(write -> write.accept(fresh));
+                pendingWrites = null;
+                swapped = true;
+                index = fresh;
+                ready = true;
+                log.info("Course title index loaded with {} courses", fresh.size());
+                return fresh.size();
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            if (!swapped) {
+                // Whatever was thrown, an OutOfMemoryError included, must not leave writes queueing for a rebuild
+                // that is gone, nor block the next one
+                lock.lock();
+                try {
+                    pendingWrites = null;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    private void apply(Consumer<TrigramIndex> write) {
+        lock.lock();
+        try {
+            write.accept(index);
+            if (pendingWrites != null) {
+                pendingWrites.add(write);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.springapp.mongodb.search;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index from title trigrams to documents, answering case-sensitive substring queries
+ * with the same semantics as {@code CourseRepository.findByTitleContaining}.
+ * <p>
+ * Course ids are mapped to dense {@code int} document numbers so every posting list is a sorted
+ * {@code int[]}; a trigram is packed into a {@code long} key. Candidates from the intersection of
+ * the query's posting lists are confirmed against the stored title, so results are exact.
+ */
+class TrigramIndex {
+
+    private static final int GRAM = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> docsById = new HashMap<>();
+    private final List<@Nullable String> ids = new ArrayList<>();
+    private final List<@Nullable String> titles = new ArrayList<>();
+    private final Deque<Integer> freeDocs = new ArrayDeque<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    /**
+     * Adds a course, or replaces its previous title.
+     */
+    void put(String id, @Nullable String title) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = docsById.get(id);
+            int doc;
+            if (existing != null) {
+                doc = existing;
+                unindex(doc, titles.get(doc));
+            } else {
+                doc = allocate(id);
+            }
+            titles.set(doc, title);
+            if (title != null) {
+                for (long gram : grams(title)) {
+                    postings.computeIfAbsent(gram, key -> new Postings()).add(doc);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docsById.remove(id);
+            if (doc == null) {
+                return;
+            }
+            unindex(doc, titles.get(doc));
+            ids.set(doc, null);
+            titles.set(doc, null);
+            freeDocs.push(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            docsById.clear();
+            ids.clear();
+            titles.clear();
+            freeDocs.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return docsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of all courses whose title contains {@code query}, in document-number order.
+     */
+    List<String> search(String query) {
+        lock.readLock().lock();
+        try {
+            if (query.length() < GRAM) {
+                // Too short to have a trigram: the in-memory titles are still far cheaper than a collection scan
+                return scan(query);
+            }
+            long[] queryGrams = grams(query);
+            Postings[] lists = new Postings[queryGrams.length];
+            for (int i = 0; i < queryGrams.length; i++) {
+                Postings list = postings.get(queryGrams[i]);
+                if (list == null) {
+                    return List.of();
+                }
+                lists[i] = list;
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+            List<String> matches = new ArrayList<>();
+            Postings shortest = lists[0];
+            candidates:
+            for (int i = 0; i < shortest.size; i++) {
+                int doc = shortest.docs[i];
+                for (int j = 1; j < lists.length; j++) {
+                    if (!lists[j].contains(doc)) {
+                        continue candidates;
+                    }
+                }
+                String title = titles.get(doc);
+                if (title != null && title.contains(query)) {
+                    matches.add(ids.get(doc));
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<String> scan(String query) {
+        List<String> matches = new ArrayList<>();
+        for (int doc = 0; doc < titles.size(); doc++) {
+            String title = titles.get(doc);
+            if (title != null && title.contains(query)) {
+                matches.add(ids.get(doc));
+            }
+        }
+        return matches;
+    }
+
+    private int allocate(String id) {
+        int doc;
+        if (freeDocs.isEmpty()) {
+            doc = ids.size();
+            ids.add(id);
+            titles.add(null);
+        } else {
+            doc = freeDocs.pop();
+            ids.set(doc, id);
+        }
+        docsById.put(id, doc);
+        return doc;
+    }
+
+    private void unindex(int doc, @Nullable String title) {
+        if (title == null) {
+            return;
+        }
+        for (long gram : grams(title)) {
+            Postings list = postings.get(gram);
+            if (list != null && list.remove(doc) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    /**
+     * Distinct trigrams of {@code text}, each packed as three UTF-16 code units into one {@code long}.
+     */
+    private static long[] grams(String text) {
+        int count = Math.max(0, text.length() - GRAM + 1);
+        long[] grams = new long[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    /**
+     * Sorted, growable posting list of document numbers.
+     */
+    private static final class Postings {
+
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            int at = Arrays.binarySearch(docs, 0, size, doc);
+            if (at >= 0) {
+                return;
+            }
+            int insertion = -at - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size + (size >> 1) + 1);
+            }
+            System.arraycopy(docs, insertion, docs, insertion + 1, size - insertion);
+            docs[insertion] = doc;
+            size++;
+        }
+
+        boolean remove(int doc) {
+            int at = Arrays.binarySearch(docs, 0, size, doc);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(docs, at + 1, docs, at, size - at - 1);
+            size--;
+            if (docs.length > 16 && size < docs.length / 4) {
+                docs = Arrays.copyOf(docs, docs.length / 2);
+            }
+            return true;
+        }
+
+        boolean contains(int doc) {
+            return Arrays.binarySearch(docs, 0, size, doc) >= 0;
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.springapp.mongodb.service;
+
+import com.mongodb.ErrorCategory;
+import com.springapp.mongodb.exception.CreateQueueFullException;
+import com.springapp.mongodb.model.BulkMode;
+import com.springapp.mongodb.model.BulkWriteReport;
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.repository.CourseRepository;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Link;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Coalesces concurrent course inserts into unordered bulk writes, so many clients creating courses one by one cost
+ * one round trip per batch instead of one per course. Enabled with {@code courses.create-batching.enabled}.
+ * <p>
+ * Callers wait in {@link #insert(Course)} while a single flusher, a long-running task on Spring Boot's application
+ * task executor, collects up to
+ * {@code courses.create-batching.max-batch-size} courses, or whatever arrived within
+ * {@code courses.create-batching.max-delay} of the oldest one, and writes them together. Each caller gets its own
+ * course back with its id, or its own write error. The queue holds at most {@code courses.create-batching.queue-capacity}
+ * courses; a caller that cannot enqueue within {@code courses.create-batching.enqueue-timeout} is rejected with
+ * {@link CreateQueueFullException} instead of piling up behind MongoDB, and so is a caller whose batch is not written
+ * within {@code courses.create-batching.write-timeout}.
+ * <p>
+ * A batch is written on the flusher thread with the first caller's context restored, so the write and its Mongo
+ * command spans and logs carry that caller's trace. The write gets its own span with a link to every caller's span,
+ * so each caller's trace still leads to the shared write.
+ */
+@Component
+public class CourseCreateBatcher implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseCreateBatcher.class);
+
+    private static final ContextSnapshotFactory CONTEXT_SNAPSHOTS = ContextSnapshotFactory.builder().build();
+
+    private final CourseRepository repository;
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+    private final TaskExecutor taskExecutor;
+    private final DistributionSummary batchSizes;
+    private final Timer flushes;
+    private final Timer waits;
+    private final Counter rejections;
+
+    @Value("${courses.create-batching.enabled:false}")
+    private boolean enabled;
+
+    @Value("${courses.create-batching.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${courses.create-batching.max-delay:5ms}")
+    private Duration maxDelay;
+
+    @Value("${courses.create-batching.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${courses.create-batching.enqueue-timeout:100ms}")
+    private Duration enqueueTimeout;
+
+    @Value("${courses.create-batching.write-timeout:10s}")
+    private Duration writeTimeout;
+
+    // Set while accepting creates; the flusher drains whatever is left once it is cleared
+    private volatile @Nullable BlockingQueue<PendingCreate> queue;
+    private volatile @Nullable FutureTask<Void> flusher;
+
+    public CourseCreateBatcher(CourseRepository repository, MeterRegistry meterRegistry, Tracer tracer,
+                               @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.repository = repository;
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+        this.taskExecutor = taskExecutor;
+        this.batchSizes = DistributionSummary.builder("courses.create.batch.size")
+                .description("Courses written per coalesced insert")
+                .baseUnit("courses")
+                .register(meterRegistry);
+        this.flushes = Timer.builder("courses.create.batch.flush")
+                .description("Time to write one coalesced insert batch")
+                .register(meterRegistry);
+        this.waits = Timer.builder("courses.create.batch.wait")
+                .description("Time from queueing a create until its batch is written")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("courses.create.batch.rejected")
+                .description("Creates rejected because the queue stayed full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Inserts the course with the next batch and waits for that batch to be written.
+     *
+     * @return the same course, with its generated id, version and last-modified time set
+     * @throws CreateQueueFullException if the queue stayed full for the whole enqueue timeout, or the batch was not
+     *                                  written within the write timeout
+     * @throws DuplicateKeyException    if a course with the same id already exists
+     */
+    public Course insert(Course course) {
+        BlockingQueue<PendingCreate> current = queue;
+        if (current == null) {
+            return repository.insert(course);
+        }
+
+        var pending = new PendingCreate(course, System.nanoTime(), CONTEXT_SNAPSHOTS.captureAll(),
+                tracer.currentTraceContext().context(), new CompletableFuture<>());
+        try {
+            if (!current.offer(pending, enqueueTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                rejections.increment();
+                throw new CreateQueueFullException("Too many course creates are queued, retry later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CreateQueueFullException("Interrupted while waiting to queue the course");
+        }
+        // Stopped while enqueuing: unless the final drain already took it, write it here
+        if (queue != current && current.remove(pending)) {
+            return repository.insert(course);
+        }
+
+        try {
+            return pending.result().get(writeTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Coalesced insert failed", e.getCause());
+        } catch (TimeoutException e) {
+            // Still queued means it will never be written; otherwise its batch is in flight and may yet succeed
+            throw new CreateQueueFullException(current.remove(pending)
+                    ? "Course creates are not being written, retry later"
+                    : "The course create is taking too long and may still be written, check before retrying");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CreateQueueFullException("Interrupted while waiting for the course to be written");
+        }
+    }
+
+    private void flushLoop(BlockingQueue<PendingCreate> pendingCreates) {
+        List<PendingCreate> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (queue == pendingCreates || !pendingCreates.isEmpty()) {
+                PendingCreate first = pendingCreates.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // The oldest create bounds how long the batch may wait for company
+                long deadline = first.queuedAt() + maxDelay.toNanos();
+                while (batch.size() < maxBatchSize) {
+                    pendingCreates.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() == maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingCreate next = pendingCreates.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                try {
+                    flush(batch);
+                } catch (Throwable e) {
+                    // Whatever broke, the flusher has to survive it and no caller may be left waiting
+                    log.error("Coalesced insert of {} courses failed unexpectedly", batch.size(), e);
+                    batch.forEach(pending -> pending.result().completeExceptionally(e));
+                } finally {
+                    batch.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            batch.addAll(pendingCreates);
+            var stopped = new CreateQueueFullException("Course creates are no longer accepted, retry later");
+            batch.forEach(pending -> pending.result().completeExceptionally(stopped));
+        }
+    }
+
+    private void flush(List<PendingCreate> batch) {
+        List<Course> courses = batch.stream().map(PendingCreate::course).toList();
+        batchSizes.record(batch.size());
+        BulkWriteReport.ChunkResult result;
+        long start = System.nanoTime();
+        Span span = batchSpan(batch);
+        try (ContextSnapshot.Scope restored = batch.getFirst().context().setThreadLocals();
+             Tracer.SpanInScope inScope = tracer.withSpan(span)) {
+            try {
+                result = repository.bulkWrite(0, courses, BulkMode.INSERT);
+            } catch (RuntimeException e) {
+                span.error(e);
+                log.warn("Coalesced insert of {} courses failed: {}", batch.size(), e.getMessage());
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+                return;
+            }
+        } finally {
+            span.end();
+            flushes.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        BulkWriteReport.@Nullable ItemError[] errors = new BulkWriteReport.ItemError[batch.size()];
+        result.errors().forEach(error -> errors[error.index()] = error);
+        long now = System.nanoTime();
+        for (int i = 0; i < batch.size(); i++) {
+            PendingCreate pending = batch.get(i);
+            waits.record(now - pending.queuedAt(), TimeUnit.NANOSECONDS);
+            BulkWriteReport.ItemError error = errors[i];
+            if (error == null) {
+                pending.result().complete(pending.course());
+            } else if (ErrorCategory.fromErrorCode(error.code()) == ErrorCategory.DUPLICATE_KEY) {
+                pending.result().completeExceptionally(new DuplicateKeyException(error.message()));
+            } else {
+                pending.result().completeExceptionally(new DataIntegrityViolationException(error.message()));
+            }
+        }
+    }
+
+    /**
+     * A child of the first caller's span, linked to every caller's span.
+     */
+    private Span batchSpan(List<PendingCreate> batch) {
+        Span.Builder span = tracer.spanBuilder()
+                .name("course create batch")
+                .tag("courses.batch.size", batch.size());
+        TraceContext first = batch.getFirst().trace();
+        if (first != null) {
+            span.setParent(first);
+        }
+        for (PendingCreate pending : batch) {
+            TraceContext trace = pending.trace();
+            if (trace != null) {
+                span.addLink(new Link(trace));
+            }
+        }
+        return span.start();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        BlockingQueue<PendingCreate> pendingCreates = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("courses.create.batch.queued", pendingCreates, BlockingQueue::size)
+                .description("Creates waiting for the next coalesced insert")
+                .register(meterRegistry);
+        FutureTask<Void> task = new FutureTask<>(() -> flushLoop(pendingCreates), null);
+        queue = pendingCreates;
+        taskExecutor.execute(task);
+        flusher = task;
+    }
+
+    @Override
+    public void stop() {
+        FutureTask<Void> task = flusher;
+        if (task == null) {
+            return;
+        }
+        // New creates write directly; the flusher writes what is queued and then exits
+        queue = null;
+        flusher = null;
+        try {
+            task.get(10, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            // Interrupting the flusher fails whatever is still queued
+            task.cancel(true);
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("Course create flusher stopped unexpectedly", e.getCause());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return flusher != null;
+    }
+
+    /**
+     * @param context the caller's thread-local context, restored while its batch is written
+     * @param trace   the caller's span, if it was traced
+     */
+    private record PendingCreate(Course course, long queuedAt, ContextSnapshot context, @Nullable TraceContext trace,
+                                 CompletableFuture<Course> result) {
+    }
+}
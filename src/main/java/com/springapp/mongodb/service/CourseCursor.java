@@ -0,0 +1,57 @@
+package com.springapp.mongodb.service;
+
+import com.springapp.mongodb.exception.InvalidRequestException;
+import com.springapp.mongodb.model.CursorPage;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Encodes the last {@code _id} of a page into the opaque {@code after} token handed out to clients,
+ * and cuts fetched results into {@link CursorPage}s for both the blocking and the reactive service.
+ */
+final class CourseCursor {
+
+    private CourseCursor() {
+    }
+
+    static String encode(String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String decode(String cursor) {
+        try {
+            String id = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (id.isBlank()) {
+                throw new InvalidRequestException("Invalid cursor: " + cursor);
+            }
+            return id;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Pages are fetched with one extra element to learn whether another page exists without a count query.
+     */
+    static <T> CursorPage<T> page(List<T> fetched, int pageSize, Function<T, String> idOf) {
+        if (fetched.size() <= pageSize) {
+            return new CursorPage<>(fetched, null);
+        }
+        List<T> page = fetched.subList(0, pageSize);
+        return new CursorPage<>(page, encode(idOf.apply(page.getLast())));
+    }
+
+    static int resolveLimit(@Nullable Integer limit, int defaultLimit, int maxLimit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1) {
+            throw new InvalidRequestException("limit must be at least 1");
+        }
+        return Math.min(limit, maxLimit);
+    }
+}
@@ -0,0 +1,44 @@
+package com.springapp.mongodb.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Cuts title index hits into bounded {@code $in} chunks and puts each fetched chunk back into index order, for both
+ * the blocking and the reactive service. A search shorter than a trigram matches nearly every title, and one
+ * {@code $in} over all of those ids could outgrow MongoDB's 16 MB command limit.
+ */
+final class CourseIndexHits {
+
+    private CourseIndexHits() {
+    }
+
+    static List<List<String>> chunks(List<String> ids, int chunkSize) {
+        List<List<String>> chunks = new ArrayList<>((ids.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            chunks.add(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * MongoDB returns an {@code $in} in collection order; ids with no course, deleted since they were indexed,
+     * are dropped.
+     */
+    static <T> List<T> inIndexOrder(List<String> chunk, Collection<T> fetched, Function<T, String> idOf) {
+        Map<String, T> byId = new HashMap<>(fetched.size() * 2);
+        fetched.forEach(course -> byId.put(idOf.apply(course), course));
+        List<T> ordered = new ArrayList<>(fetched.size());
+        for (String id : chunk) {
+            T course = byId.get(id);
+            if (course != null) {
+                ordered.add(course);
+            }
+        }
+        return ordered;
+    }
+}
@@ -1,21 +1,84 @@
 package com.springapp.mongodb.service;
 
+import com.springapp.mongodb.model.BulkMode;
+import com.springapp.mongodb.model.BulkWriteReport;
 import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.model.CourseField;
+import com.springapp.mongodb.model.CourseProjection;
+import com.springapp.mongodb.model.CourseStats;
+import com.springapp.mongodb.model.CourseUpdate;
+import com.springapp.mongodb.model.CourseVersion;
+import com.springapp.mongodb.model.CursorPage;
+import org.jspecify.annotations.Nullable;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface CourseService {
 
-    Optional<List<Course>> findAll();
+    /**
+     * Returns the page of courses that follows the {@code after} cursor, ordered by id.
+     *
+     * @param after cursor from a previous {@link CursorPage#nextCursor()}, or {@code null} for the first page
+     * @param limit maximum page size, or {@code null} for the configured default
+     */
+    CursorPage<Course> findPage(@Nullable String after, @Nullable Integer limit);
+
+    /**
+     * Same page as {@link #findPage(String, Integer)}, reading and returning only the selected fields.
+     */
+    CursorPage<CourseProjection> findPage(@Nullable String after, @Nullable Integer limit, Set<CourseField> fields);
+
+    /**
+     * Same page as {@link #findPage(String, Integer)}, reading only ids and versions.
+     */
+    CursorPage<CourseVersion> findPageVersions(@Nullable String after, @Nullable Integer limit);
+
+    /**
+     * Streams the whole catalog over a database cursor so callers can write it out without buffering.
+     * The stream must be closed once consumed.
+     */
+    Stream<Course> streamAll();
 
     Optional<List<Course>> findByTitleContaining(String title);
 
+    Optional<List<CourseProjection>> findByTitleContaining(String title, Set<CourseField> fields);
+
     Optional<Course> findById(String id);
 
     Optional<Course> createCourse(Course course);
 
-    void deleteAllCourses();
+    /**
+     * Applies {@code changes} to the stored course in one atomic round trip and returns the new state.
+     *
+     * @param expectedVersion when set, only update the course if it is still at this version
+     * @return the updated course, or empty when no course has this id
+     * @throws org.springframework.dao.OptimisticLockingFailureException when the course is at another version
+     */
+    Optional<Course> updateCourse(String id, CourseUpdate changes, @Nullable Long expectedVersion);
+
+    /**
+     * Writes courses in chunks of the configured size, one unordered bulk write per chunk.
+     * The iterator is consumed lazily, so callers can hand in a parser over the request body.
+     */
+    BulkWriteReport bulkWrite(Iterator<Course> courses, BulkMode mode);
+
+    /**
+     * @param fresh run the aggregation over the collection instead of returning the counts kept in process
+     */
+    CourseStats stats(boolean fresh);
+
+    long count();
+
+    /**
+     * Deletes the first {@code size} courses in id order in one round trip.
+     *
+     * @return number of courses deleted, less than {@code size} once the catalog is empty
+     */
+    int deleteChunk(int size);
 
     void deleteCourseById(String id);
 
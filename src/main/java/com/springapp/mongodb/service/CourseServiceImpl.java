@@ -1,48 +1,245 @@
 package com.springapp.mongodb.service;
 
+import com.springapp.mongodb.catalog.CourseCatalog;
+import com.springapp.mongodb.config.CacheConfig;
+import com.springapp.mongodb.exception.InvalidRequestException;
+import com.springapp.mongodb.model.BulkMode;
+import com.springapp.mongodb.model.BulkWriteReport;
 import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.model.CourseChange;
+import com.springapp.mongodb.model.CourseField;
+import com.springapp.mongodb.model.CourseProjection;
+import com.springapp.mongodb.model.CourseStats;
+import com.springapp.mongodb.model.CourseUpdate;
+import com.springapp.mongodb.model.CourseVersion;
+import com.springapp.mongodb.model.CursorPage;
 import com.springapp.mongodb.repository.CourseRepository;
+import com.springapp.mongodb.search.CourseTitleIndex;
+import com.springapp.mongodb.stats.CourseStatistics;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class CourseServiceImpl implements CourseService {
 
     private final CourseRepository repository;
+    private final CourseTitleIndex titleIndex;
+    private final CourseCatalog catalog;
+    private final CourseCreateBatcher createBatcher;
+    private final SingleFlight singleFlight;
+    private final CourseStatistics statistics;
 
-    public CourseServiceImpl(CourseRepository repository) {
+    @Value("${courses.page.default-limit:100}")
+    private int defaultPageLimit;
+
+    @Value("${courses.page.max-limit:1000}")
+    private int maxPageLimit;
+
+    @Value("${courses.export.batch-size:500}")
+    private int exportBatchSize;
+
+    @Value("${courses.bulk.chunk-size:1000}")
+    private int bulkChunkSize;
+
+    public CourseServiceImpl(CourseRepository repository, CourseTitleIndex titleIndex, CourseCatalog catalog,
+                             CourseCreateBatcher createBatcher, SingleFlight singleFlight,
+                             CourseStatistics statistics) {
         this.repository = repository;
+        this.titleIndex = titleIndex;
+        this.catalog = catalog;
+        this.createBatcher = createBatcher;
+        this.singleFlight = singleFlight;
+        this.statistics = statistics;
+    }
+
+    @Override
+    public CursorPage<Course> findPage(@Nullable String after, @Nullable Integer limit) {
+        int pageSize = resolvePageLimit(limit);
+        List<Course> courses = after == null
+                ? repository.findAllByOrderByIdAsc(Limit.of(pageSize + 1))
+                : repository.findByIdGreaterThanOrderByIdAsc(CourseCursor.decode(after), Limit.of(pageSize + 1));
+        return CourseCursor.page(courses, pageSize, Course::getId);
+    }
+
+    @Override
+    public CursorPage<CourseProjection> findPage(@Nullable String after, @Nullable Integer limit, Set<CourseField> fields) {
+        int pageSize = resolvePageLimit(limit);
+        String afterId = after != null ? CourseCursor.decode(after) : null;
+        return CourseCursor.page(repository.findPage(afterId, pageSize + 1, fields), pageSize, CourseProjection::id);
     }
 
     @Override
-    public Optional<List<Course>> findAll() {
-        return Optional.of(repository.findAll());
+    public CursorPage<CourseVersion> findPageVersions(@Nullable String after, @Nullable Integer limit) {
+        int pageSize = resolvePageLimit(limit);
+        List<CourseVersion> versions = after == null
+                ? repository.findVersionsByOrderByIdAsc(Limit.of(pageSize + 1))
+                : repository.findVersionsByIdGreaterThanOrderByIdAsc(CourseCursor.decode(after), Limit.of(pageSize + 1));
+        return CourseCursor.page(versions, pageSize, CourseVersion::id);
+    }
+
+    @Override
+    public Stream<Course> streamAll() {
+        return repository.streamAll(exportBatchSize);
     }
 
     @Override
     public Optional<List<Course>> findByTitleContaining(String title) {
-        return Optional.of(repository.findByTitleContaining(title));
+        // The unanchored regex has to scan every key of the title index, so only fall back to it while the in-memory
+        // title index warms up
+        List<Course> courses = singleFlight.execute("findByTitleContaining", List.of(title), () -> titleIndex.search(title)
+                .map(ids -> fetchHits(ids, repository::findAllById, Course::getId))
+                .orElseGet(() -> repository.findByTitleContaining(title)));
+        return Optional.of(courses);
+    }
+
+    @Override
+    public Optional<List<CourseProjection>> findByTitleContaining(String title, Set<CourseField> fields) {
+        List<CourseProjection> courses = singleFlight.execute("findByTitleContaining", List.of(title, fields),
+                () -> titleIndex.search(title)
+                        .map(ids -> fetchHits(ids, chunk -> repository.findByIds(chunk, fields), CourseProjection::id))
+                        .orElseGet(() -> repository.findByTitleContaining(title, fields)));
+        return Optional.of(courses);
+    }
+
+    // One $in per export batch, so a short search that hits most titles stays a bounded round trip each
+    private <T> List<T> fetchHits(List<String> ids, Function<List<String>, List<T>> fetch, Function<T, String> idOf) {
+        List<T> courses = new ArrayList<>(ids.size());
+        for (List<String> chunk : CourseIndexHits.chunks(ids, exportBatchSize)) {
+            courses.addAll(CourseIndexHits.inIndexOrder(chunk, fetch.apply(chunk), idOf));
+        }
+        return courses;
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.COURSES_CACHE, key = "#id")
     public Optional<Course> findById(String id) {
-        return repository.findById(id);
+        // Only cache misses get here, so a burst for a course that is not cached yet costs one query
+        return singleFlight.execute("findById", List.of(id), () -> repository.findById(id));
     }
 
     @Override
+    @CachePut(cacheNames = CacheConfig.COURSES_CACHE, key = "#result.id")
     public Optional<Course> createCourse(Course course) {
-        return Optional.of(repository.save(course));
+        // A course sent with a version is an update under save semantics, so only plain inserts are coalesced
+        boolean insert = course.getVersion() == null;
+        Course saved = createBatcher.isRunning() && insert
+                ? createBatcher.insert(course)
+                : repository.save(course);
+        titleIndex.put(saved);
+        catalog.invalidate();
+        if (insert) {
+            statistics.recordCreated(saved);
+        } else {
+            statistics.recordChanged();
+        }
+        return Optional.of(saved);
     }
 
     @Override
-    public void deleteAllCourses() {
-        repository.deleteAll();
+    @CachePut(cacheNames = CacheConfig.COURSES_CACHE, key = "#id")
+    public Optional<Course> updateCourse(String id, CourseUpdate changes, @Nullable Long expectedVersion) {
+        if (changes.isEmpty()) {
+            throw new InvalidRequestException("No course fields to update");
+        }
+        Optional<CourseChange> change = repository.update(id, changes, expectedVersion);
+        change.ifPresent(updated -> {
+            titleIndex.put(updated.after());
+            catalog.invalidate();
+            statistics.recordUpdated(updated.before(), updated.after());
+        });
+        return change.map(CourseChange::after);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.COURSES_CACHE, allEntries = true)
+    public BulkWriteReport bulkWrite(Iterator<Course> courses, BulkMode mode) {
+        List<BulkWriteReport.ChunkResult> chunks = new ArrayList<>();
+        List<Course> chunk = new ArrayList<>(bulkChunkSize);
+        long received = 0;
+        while (courses.hasNext()) {
+            chunk.add(courses.next());
+            received++;
+            if (chunk.size() == bulkChunkSize) {
+                chunks.add(writeChunk(chunks.size(), chunk, mode));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(writeChunk(chunks.size(), chunk, mode));
+        }
+        catalog.invalidate();
+        if (mode == BulkMode.UPSERT) {
+            statistics.recordChanged();
+        }
+
+        long failed = chunks.stream().mapToLong(BulkWriteReport.ChunkResult::failed).sum();
+        return new BulkWriteReport(received, received - failed, failed, chunks);
+    }
+
+    @Override
+    public CourseStats stats(boolean fresh) {
+        return fresh ? statistics.reconcile() : statistics.current();
+    }
+
+    @Override
+    public long count() {
+        return repository.count();
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.COURSES_CACHE, allEntries = true)
+    public int deleteChunk(int size) {
+        List<String> ids = repository.findVersionsByOrderByIdAsc(Limit.of(size)).stream()
+                .map(CourseVersion::id)
+                .toList();
+        if (!ids.isEmpty()) {
+            repository.deleteAllById(ids);
+            ids.forEach(titleIndex::remove);
+            catalog.invalidate();
+            statistics.recordChanged();
+        }
+        return ids.size();
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.COURSES_CACHE, key = "#id")
     public void deleteCourseById(String id) {
-        repository.deleteById(id);
+        repository.findAndDeleteById(id).ifPresent(statistics::recordDeleted);
+        titleIndex.remove(id);
+        catalog.invalidate();
+    }
+
+    private BulkWriteReport.ChunkResult writeChunk(int number, List<Course> chunk, BulkMode mode) {
+        BulkWriteReport.ChunkResult result = repository.bulkWrite(number, chunk, mode);
+        Set<Integer> failed = result.errors().stream()
+                .map(BulkWriteReport.ItemError::index)
+                .collect(Collectors.toSet());
+        for (int i = 0; i < chunk.size(); i++) {
+            if (!failed.contains(i)) {
+                titleIndex.put(chunk.get(i));
+                if (mode == BulkMode.INSERT) {
+                    statistics.recordCreated(chunk.get(i));
+                }
+            }
+        }
+        return result;
+    }
+
+    private int resolvePageLimit(@Nullable Integer limit) {
+        return CourseCursor.resolveLimit(limit, defaultPageLimit, maxPageLimit);
     }
 }
@@ -0,0 +1,40 @@
+package com.springapp.mongodb.service;
+
+import com.springapp.mongodb.model.BulkMode;
+import com.springapp.mongodb.model.BulkWriteReport;
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.model.CourseUpdate;
+import com.springapp.mongodb.model.CursorPage;
+import org.jspecify.annotations.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variant of {@link CourseService}. It shares the course cache and title index with the blocking
+ * service, so writes made through either API are visible to both.
+ */
+public interface ReactiveCourseService {
+
+    Mono<CursorPage<Course>> findPage(@Nullable String after, @Nullable Integer limit);
+
+    /**
+     * Emits every course, fetching the next cursor batch only as the subscriber requests more.
+     */
+    Flux<Course> streamAll();
+
+    Flux<Course> findByTitleContaining(String title);
+
+    Mono<Course> findById(String id);
+
+    Mono<Course> createCourse(Course course);
+
+    Mono<Course> updateCourse(String id, CourseUpdate changes, @Nullable Long expectedVersion);
+
+    /**
+     * Writes courses chunk by chunk as they are emitted, requesting the next chunk only once the previous one is
+     * written, so a large payload is never held in memory as a whole.
+     */
+    Mono<BulkWriteReport> bulkWrite(Flux<Course> courses, BulkMode mode);
+
+    Mono<Void> deleteCourseById(String id);
+}
@@ -0,0 +1,187 @@
+package com.springapp.mongodb.service;
+
+import com.springapp.mongodb.catalog.CourseCatalog;
+import com.springapp.mongodb.config.CacheConfig;
+import com.springapp.mongodb.exception.InvalidRequestException;
+import com.springapp.mongodb.model.BulkMode;
+import com.springapp.mongodb.model.BulkWriteReport;
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.model.CourseChange;
+import com.springapp.mongodb.model.CourseUpdate;
+import com.springapp.mongodb.model.CursorPage;
+import com.springapp.mongodb.repository.ReactiveCourseRepository;
+import com.springapp.mongodb.search.CourseTitleIndex;
+import com.springapp.mongodb.stats.CourseStatistics;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@ConditionalOnProperty(name = "courses.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveCourseServiceImpl implements ReactiveCourseService {
+
+    private final ReactiveCourseRepository repository;
+    private final CourseTitleIndex titleIndex;
+    private final CourseCatalog catalog;
+    private final CourseStatistics statistics;
+    private final Cache cache;
+
+    @Value("${courses.page.default-limit:100}")
+    private int defaultPageLimit;
+
+    @Value("${courses.page.max-limit:1000}")
+    private int maxPageLimit;
+
+    @Value("${courses.export.batch-size:500}")
+    private int exportBatchSize;
+
+    @Value("${courses.bulk.chunk-size:1000}")
+    private int bulkChunkSize;
+
+    public ReactiveCourseServiceImpl(ReactiveCourseRepository repository, CourseTitleIndex titleIndex,
+                                     CourseCatalog catalog, CourseStatistics statistics, CacheManager cacheManager) {
+        this.repository = repository;
+        this.titleIndex = titleIndex;
+        this.catalog = catalog;
+        this.statistics = statistics;
+        // The caching annotations do not apply to Mono results with this cache, so it is used directly
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.COURSES_CACHE));
+    }
+
+    @Override
+    public Mono<CursorPage<Course>> findPage(@Nullable String after, @Nullable Integer limit) {
+        int pageSize = CourseCursor.resolveLimit(limit, defaultPageLimit, maxPageLimit);
+        Flux<Course> courses = after == null
+                ? repository.findAllByOrderByIdAsc(Limit.of(pageSize + 1))
+                : repository.findByIdGreaterThanOrderByIdAsc(CourseCursor.decode(after), Limit.of(pageSize + 1));
+        return courses.collectList()
+                .map(fetched -> CourseCursor.page(fetched, pageSize, Course::getId));
+    }
+
+    @Override
+    public Flux<Course> streamAll() {
+        return repository.streamAll(exportBatchSize);
+    }
+
+    @Override
+    public Flux<Course> findByTitleContaining(String title) {
+        return titleIndex.search(title)
+                .map(ids -> Flux.fromIterable(CourseIndexHits.chunks(ids, exportBatchSize))
+                        .concatMap(chunk -> repository.findAllById(chunk)
+                                .collectList()
+                                .flatMapIterable(courses -> CourseIndexHits.inIndexOrder(chunk, courses, Course::getId))))
+                .orElseGet(() -> repository.findByTitleContaining(title));
+    }
+
+    @Override
+    public Mono<Course> findById(String id) {
+        // Deferred, so the cache is read on every subscription rather than once when the Mono is built
+        return Mono.defer(() -> {
+            Cache.ValueWrapper cached = cache.get(id);
+            if (cached != null) {
+                // A cached null is a known miss
+                return Mono.justOrEmpty((Course) cached.get());
+            }
+            return repository.findById(id)
+                    .doOnNext(course -> cache.put(id, course))
+                    // Stored as NullValue with the negative time to live, as @Cacheable does on the blocking path
+                    .switchIfEmpty(Mono.fromRunnable(() -> cache.put(id, null)));
+        });
+    }
+
+    @Override
+    public Mono<Course> createCourse(Course course) {
+        boolean insert = course.getVersion() == null;
+        return repository.save(course)
+                .doOnNext(saved -> {
+                    cacheAndIndex(saved);
+                    if (insert) {
+                        statistics.recordCreated(saved);
+                    } else {
+                        statistics.recordChanged();
+                    }
+                });
+    }
+
+    @Override
+    public Mono<Course> updateCourse(String id, CourseUpdate changes, @Nullable Long expectedVersion) {
+        if (changes.isEmpty()) {
+            return Mono.error(new InvalidRequestException("No course fields to update"));
+        }
+        return repository.update(id, changes, expectedVersion)
+                .doOnNext(change -> {
+                    cacheAndIndex(change.after());
+                    statistics.recordUpdated(change.before(), change.after());
+                })
+                .map(CourseChange::after);
+    }
+
+    @Override
+    public Mono<BulkWriteReport> bulkWrite(Flux<Course> courses, BulkMode mode) {
+        return courses
+                .buffer(bulkChunkSize)
+                .index()
+                // One chunk in flight at a time, like the blocking service, so a large payload cannot flood the pool;
+                // a prefetch of one keeps the next chunk from being read before the current one is written
+                .concatMap(chunk -> writeChunk(Math.toIntExact(chunk.getT1()), chunk.getT2(), mode), 1)
+                .collectList()
+                .map(chunks -> {
+                    long received = chunks.stream().mapToLong(BulkWriteReport.ChunkResult::size).sum();
+                    long failed = chunks.stream().mapToLong(BulkWriteReport.ChunkResult::failed).sum();
+                    return new BulkWriteReport(received, received - failed, failed, chunks);
+                })
+                .doFinally(signal -> {
+                    cache.clear();
+                    catalog.invalidate();
+                    if (mode == BulkMode.UPSERT) {
+                        statistics.recordChanged();
+                    }
+                });
+    }
+
+    @Override
+    public Mono<Void> deleteCourseById(String id) {
+        return repository.findAndDeleteById(id)
+                .doOnNext(statistics::recordDeleted)
+                .doFinally(signal -> {
+                    cache.evict(id);
+                    titleIndex.remove(id);
+                    catalog.invalidate();
+                })
+                .then();
+    }
+
+    private Mono<BulkWriteReport.ChunkResult> writeChunk(int number, List<Course> chunk, BulkMode mode) {
+        return repository.bulkWrite(number, chunk, mode)
+                .doOnNext(result -> {
+                    Set<Integer> failed = result.errors().stream()
+                            .map(BulkWriteReport.ItemError::index)
+                            .collect(Collectors.toSet());
+                    for (int i = 0; i < chunk.size(); i++) {
+                        if (!failed.contains(i)) {
+                            titleIndex.put(chunk.get(i));
+                            if (mode == BulkMode.INSERT) {
+                                statistics.recordCreated(chunk.get(i));
+                            }
+                        }
+                    }
+                });
+    }
+
+    private void cacheAndIndex(Course course) {
+        cache.put(course.getId(), course);
+        titleIndex.put(course);
+        catalog.invalidate();
+    }
+}
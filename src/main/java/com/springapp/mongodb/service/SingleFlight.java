@@ -0,0 +1,109 @@
+package com.springapp.mongodb.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent identical reads share one query: the first caller for an operation and its arguments runs it, and
+ * callers that arrive while it is in flight wait for its result instead of sending their own. The entry is removed
+ * as soon as the query returns, so nothing is served after that; this is deduplication, not a cache.
+ * <p>
+ * A follower waits at most {@code courses.single-flight.follower-timeout} before running the query itself, so one
+ * stuck query does not hold every request for the same key. If the leading caller is interrupted, its followers run
+ * the query themselves rather than fail with it. Shared results are counted by {@code courses.single-flight.coalesced}.
+ */
+@Component
+public class SingleFlight {
+
+    private final ConcurrentHashMap<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    @Value("${courses.single-flight.enabled:true}")
+    private boolean enabled;
+
+    @Value("${courses.single-flight.follower-timeout:1s}")
+    private Duration followerTimeout;
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param operation names the query, so different queries over the same arguments never share a result
+     * @param arguments everything the result depends on; compared with {@code equals}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, List<?> arguments, Supplier<T> query) {
+        if (!enabled) {
+            return query.get();
+        }
+        List<Object> key = new ArrayList<>(arguments.size() + 1);
+        key.add(operation);
+        key.addAll(arguments);
+
+        var call = new CompletableFuture<Object>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, call);
+        if (leader == null) {
+            return lead(key, call, query);
+        }
+        meterRegistry.counter("courses.single-flight.coalesced", "operation", operation).increment();
+        return (T) follow(leader, query);
+    }
+
+    private <T> T lead(List<Object> key, CompletableFuture<Object> call, Supplier<T> query) {
+        T result;
+        try {
+            result = query.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, call);
+            call.completeExceptionally(Thread.currentThread().isInterrupted() ? new LeaderCancelledException() : e);
+            throw e;
+        }
+        // Removed before completing, so no caller can pick up the result once it has been handed out
+        inFlight.remove(key, call);
+        call.complete(result);
+        return result;
+    }
+
+    private Object follow(CompletableFuture<Object> leader, Supplier<?> query) {
+        try {
+            return leader.get(followerTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return query.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for an identical query");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof LeaderCancelledException) {
+                return query.get();
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static class LeaderCancelledException extends RuntimeException {
+
+        LeaderCancelledException() {
+            super(null, null, false, false);
+        }
+    }
+}
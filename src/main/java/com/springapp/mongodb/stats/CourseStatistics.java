@@ -0,0 +1,229 @@
+package com.springapp.mongodb.stats;
+
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.model.CourseStats;
+import com.springapp.mongodb.repository.CourseRepository;
+import com.springapp.mongodb.service.SingleFlight;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Course counts kept in process, so {@code GET /api/courses/stats} is a field read rather than a scan of the catalog.
+ * <p>
+ * Writes whose effect is known (a create, an insert, an update or delete that returned the previous course) adjust
+ * the counts directly. Writes whose effect is not known here, such as a bulk upsert or a save over a versioned course,
+ * schedule a reconciliation {@code courses.stats.reconcile-delay} later. The counts are also reconciled against
+ * the aggregation every {@code courses.stats.reconcile-interval}, which picks up writes made by other instances and
+ * corrects any write that raced with the previous aggregation. Both run on Spring Boot's task scheduler.
+ * <p>
+ * A write adjusted while the aggregation runs may or may not be in its result, so its adjustment can be lost when the
+ * result replaces the counts. Such a reconciliation schedules another one {@code courses.stats.reconcile-delay} later,
+ * which bounds how long the counts stay off by those writes.
+ */
+@Component
+public class CourseStatistics implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseStatistics.class);
+
+    private final CourseRepository repository;
+    private final SingleFlight singleFlight;
+    private final TaskScheduler taskScheduler;
+
+    // Guards replacing the counts and the pending reconciliation; readers only read the volatile field
+    private final ReentrantLock lock = new ReentrantLock();
+    // Bumped by every adjustment, so a reconciliation can tell whether writes landed while it was counting
+    private long generation;
+    private volatile @Nullable CourseStats stats;
+    private @Nullable ScheduledFuture<?> pendingReconcile;
+    private volatile @Nullable ScheduledFuture<?> reconciling;
+
+    @Value("${courses.stats.prefix-length:1}")
+    private int prefixLength;
+
+    @Value("${courses.stats.reconcile-interval:5m}")
+    private Duration reconcileInterval;
+
+    @Value("${courses.stats.reconcile-delay:2s}")
+    private Duration reconcileDelay;
+
+    public CourseStatistics(CourseRepository repository, SingleFlight singleFlight, TaskScheduler taskScheduler) {
+        this.repository = repository;
+        this.singleFlight = singleFlight;
+        this.taskScheduler = taskScheduler;
+    }
+
+    /**
+     * @return the counts kept in process; before the first reconciliation this runs the aggregation once
+     */
+    public CourseStats current() {
+        CourseStats current = stats;
+        return current != null ? current : reconcile();
+    }
+
+    /**
+     * Runs the aggregation and replaces the in-process counts with its result.
+     */
+    public CourseStats reconcile() {
+        return singleFlight.execute("aggregateStats", List.of(prefixLength), () -> {
+            long startedAt;
+            lock.lock();
+            try {
+                startedAt = generation;
+            } finally {
+                lock.unlock();
+            }
+
+            CourseStats counted = repository.aggregateStats(prefixLength);
+            lock.lock();
+            try {
+                if (generation != startedAt) {
+                    // Courses were written while counting; the result may miss their adjustments
+                    scheduleReconcile();
+                }
+                CourseStats previous = stats;
+                if (previous != null && (previous.total() != counted.total() || previous.published() != counted.published()
+                        || !previous.titlePrefixes().equals(counted.titlePrefixes()))) {
+                    log.info("Course stats reconciled: {} courses counted in process, {} in the collection",
+                            previous.total(), counted.total());
+                }
+                stats = counted;
+            } finally {
+                lock.unlock();
+            }
+            return counted;
+        });
+    }
+
+    public void recordCreated(Course course) {
+        adjust(course, 1);
+    }
+
+    public void recordDeleted(Course course) {
+        adjust(course, -1);
+    }
+
+    public void recordUpdated(Course before, Course after) {
+        if (before.isPublished() == after.isPublished() && CourseStats.titlePrefix(before.getTitle(), prefixLength)
+                .equals(CourseStats.titlePrefix(after.getTitle(), prefixLength))) {
+            return;
+        }
+        // Both halves under one hold of the lock, so readers never see the course counted twice or not at all
+        lock.lock();
+        try {
+            adjust(before, -1);
+            adjust(after, 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * For writes that may have changed the counts in ways not known here; reconciles soon, once per burst.
+     */
+    public void recordChanged() {
+        lock.lock();
+        try {
+            scheduleReconcile();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called with the lock held
+    private void scheduleReconcile() {
+        if (reconciling == null || (pendingReconcile != null && !pendingReconcile.isDone())) {
+            return;
+        }
+        try {
+            pendingReconcile = taskScheduler.schedule(this::reconcilePending, Instant.now().plus(reconcileDelay));
+        } catch (TaskRejectedException e) {
+            // The scheduler is shutting down ahead of this bean
+            log.debug("Course stats reconciliation not scheduled: {}", e.getMessage());
+        }
+    }
+
+    private void reconcilePending() {
+        lock.lock();
+        try {
+            // Cleared first, so writes made while this one counts can schedule the next
+            pendingReconcile = null;
+        } finally {
+            lock.unlock();
+        }
+        reconcileQuietly();
+    }
+
+    private void adjust(Course course, int delta) {
+        lock.lock();
+        try {
+            generation++;
+            CourseStats current = stats;
+            if (current == null) {
+                // Not counted yet; the first read or reconciliation includes this write
+                return;
+            }
+            Map<String, Long> prefixes = new TreeMap<>(current.titlePrefixes());
+            String prefix = CourseStats.titlePrefix(course.getTitle(), prefixLength);
+            if (prefixes.merge(prefix, (long) delta, Long::sum) <= 0) {
+                prefixes.remove(prefix);
+            }
+            stats = new CourseStats(current.total() + delta,
+                    current.published() + (course.isPublished() ? delta : 0),
+                    current.unpublished() + (course.isPublished() ? 0 : delta),
+                    prefixes,
+                    current.reconciledAt());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.warn("Course stats could not be reconciled, keeping the in-process counts: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        reconciling = taskScheduler.scheduleWithFixedDelay(this::reconcileQuietly, reconcileInterval);
+    }
+
+    @Override
+    public void stop() {
+        lock.lock();
+        try {
+            ScheduledFuture<?> current = reconciling;
+            if (current != null) {
+                current.cancel(true);
+                reconciling = null;
+            }
+            if (pendingReconcile != null) {
+                pendingReconcile.cancel(true);
+                pendingReconcile = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return reconciling != null;
+    }
+}
@@ -0,0 +1,63 @@
+package com.springapp.mongodb.catalog;
+
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.repository.CourseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseCatalogTest {
+
+    private final CourseRepository repository = mock(CourseRepository.class);
+    private final CourseCatalog catalog = new CourseCatalog(repository, mock(TaskScheduler.class), JsonMapper.shared());
+
+    @BeforeEach
+    void setUp() {
+        // Random titles do not compress, so 1000 courses are well past 1KB gzipped
+        when(repository.streamAll(anyInt())).thenAnswer(invocation -> Stream.generate(
+                () -> new Course(UUID.randomUUID().toString(), "description", true)).limit(1000));
+        when(repository.count()).thenReturn(1000L);
+        ReflectionTestUtils.setField(catalog, "maxSize", DataSize.ofKilobytes(1));
+        ReflectionTestUtils.setField(catalog, "maxAge", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(catalog, "oversizedBackoff", Duration.ofHours(1));
+        ReflectionTestUtils.setField(catalog, "batchSize", 500);
+    }
+
+    @Test
+    void testOversizedCatalogIsOnlyRebuiltOnceTheCollectionShrinks() {
+        catalog.rebuild();
+        catalog.rebuild();
+
+        verify(repository, times(1)).streamAll(anyInt());
+        assertThat(catalog.snapshot()).isNull();
+
+        when(repository.count()).thenReturn(999L);
+        catalog.rebuild();
+
+        verify(repository, times(2)).streamAll(anyInt());
+    }
+
+    @Test
+    void testOversizedCatalogIsRebuiltAfterTheBackoff() {
+        ReflectionTestUtils.setField(catalog, "oversizedBackoff", Duration.ZERO);
+
+        catalog.rebuild();
+        catalog.rebuild();
+
+        verify(repository, times(2)).streamAll(anyInt());
+    }
+}
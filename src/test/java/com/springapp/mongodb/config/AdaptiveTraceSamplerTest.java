@@ -0,0 +1,127 @@
+package com.springapp.mongodb.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveTraceSamplerTest {
+
+    // Spans take their start and end times from the test; zero would mean "now"
+    private static final long START = 1_000;
+
+    private final List<String> exported = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private long now;
+    private double draw = 1.0;
+
+    private final AdaptiveTraceSampler sampler = new AdaptiveTraceSampler(new Recorder(), meterRegistry, 0.1,
+            Duration.ofMillis(500), 10, 100, () -> now, () -> draw);
+    private final SdkTracerProvider tracerProvider = SdkTracerProvider.builder().addSpanProcessor(sampler).build();
+    private final Tracer tracer = tracerProvider.get("test");
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    void testFastSuccessfulTraceIsDroppedOutsideTheBaseline() {
+        trace("GET /api/courses", 20, "200");
+
+        assertThat(exported).isEmpty();
+        assertThat(decisions("dropped")).isEqualTo(1);
+    }
+
+    @Test
+    void testSlowAndFailedTracesAreKeptWithTheirChildren() {
+        trace("GET /api/courses/slow", 800, "200");
+        trace("GET /api/courses/missing", 20, "404");
+
+        assertThat(exported).containsExactly("find", "GET /api/courses/slow", "find", "GET /api/courses/missing");
+        assertThat(decisions("slow")).isEqualTo(1);
+        assertThat(decisions("error")).isEqualTo(1);
+        assertThat(sampler.pendingTraces()).isZero();
+    }
+
+    @Test
+    void testChildFailureKeepsTheTrace() {
+        Span root = tracer.spanBuilder("POST /api/courses").setStartTimestamp(START, TimeUnit.MILLISECONDS).startSpan();
+        Span child = tracer.spanBuilder("insert").setParent(Context.current().with(root)).startSpan();
+        child.setStatus(StatusCode.ERROR);
+        child.end();
+        root.setAttribute("http.response.status_code", "201");
+        root.end(START + 20, TimeUnit.MILLISECONDS);
+
+        assertThat(exported).containsExactly("insert", "POST /api/courses");
+    }
+
+    @Test
+    void testBaselineLeavesHalfTheBudgetForErrors() {
+        draw = 0.0;
+        // Two spans per trace against a budget of ten: baseline stops once five tokens would be left
+        for (int i = 0; i < 5; i++) {
+            trace("GET /api/courses", 20, "200");
+        }
+        assertThat(decisions("baseline")).isEqualTo(2);
+        assertThat(decisions("over-budget")).isEqualTo(3);
+
+        for (int i = 0; i < 4; i++) {
+            trace("GET /api/courses/missing", 20, "500");
+        }
+        assertThat(decisions("error")).isEqualTo(3);
+        assertThat(decisions("over-budget")).isEqualTo(4);
+
+        // A second later the bucket is full again
+        now += TimeUnit.SECONDS.toNanos(1);
+        trace("GET /api/courses/missing", 20, "500");
+        assertThat(decisions("error")).isEqualTo(4);
+    }
+
+    private void trace(String name, long millis, String status) {
+        Span root = tracer.spanBuilder(name).setStartTimestamp(START, TimeUnit.MILLISECONDS).startSpan();
+        tracer.spanBuilder("find").setParent(Context.current().with(root)).startSpan().end();
+        root.setAttribute("http.response.status_code", status);
+        root.end(START + millis, TimeUnit.MILLISECONDS);
+    }
+
+    private double decisions(String decision) {
+        return meterRegistry.get("courses.tracing.traces").tag("decision", decision).counter().count();
+    }
+
+    private class Recorder implements SpanProcessor {
+
+        @Override
+        public void onStart(Context parentContext, ReadWriteSpan span) {
+        }
+
+        @Override
+        public boolean isStartRequired() {
+            return false;
+        }
+
+        @Override
+        public void onEnd(ReadableSpan span) {
+            exported.add(span.getName());
+        }
+
+        @Override
+        public boolean isEndRequired() {
+            return true;
+        }
+    }
+}
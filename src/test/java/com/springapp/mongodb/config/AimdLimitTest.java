@@ -0,0 +1,61 @@
+package com.springapp.mongodb.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AimdLimitTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    private final AimdLimit limit = new AimdLimit(2, 4, Duration.ofMillis(100));
+
+    @Test
+    void testRejectsOverTheLimit() {
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.inFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void testFastRequestsGrowTheLimitUpToTheMaximum() {
+        for (int i = 0; i < 10; i++) {
+            limit.tryAcquire();
+            limit.tryAcquire();
+            limit.release(FAST, false);
+            limit.release(FAST, false);
+        }
+
+        assertThat(limit.limit()).isEqualTo(4);
+        assertThat(limit.inFlight()).isZero();
+    }
+
+    @Test
+    void testIdleBudgetDoesNotGrow() {
+        var mostlyIdle = new AimdLimit(8, 16, Duration.ofMillis(100));
+        for (int i = 0; i < 10; i++) {
+            mostlyIdle.tryAcquire();
+            mostlyIdle.release(FAST, false);
+        }
+
+        assertThat(mostlyIdle.limit()).isEqualTo(8);
+    }
+
+    @Test
+    void testSlowOrFailedRequestsShrinkTheLimitButNotBelowOne() {
+        limit.tryAcquire();
+        limit.release(SLOW, false);
+        assertThat(limit.limit()).isEqualTo(1);
+
+        for (int i = 0; i < 20; i++) {
+            limit.tryAcquire();
+            limit.release(FAST, true);
+        }
+        assertThat(limit.limit()).isEqualTo(1);
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+}
@@ -0,0 +1,38 @@
+package com.springapp.mongodb.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // One bulk permit, so a leaked permit shows up as a 503 on the next bulk request
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(JsonMapper.shared(), meterRegistry, true,
+            Duration.ofSeconds(1), 4, Duration.ofMillis(250), 4, Duration.ofMillis(500), 1, Duration.ofSeconds(60),
+            1, Duration.ofSeconds(1));
+
+    @Test
+    void testPermitIsReleasedWhenTheHandlerThrowsAnError() throws Exception {
+        assertThatThrownBy(() -> filter.doFilter(bulkRequest(), new MockHttpServletResponse(), (request, response) -> {
+            throw new StackOverflowError();
+        })).isInstanceOf(StackOverflowError.class);
+
+        assertThat(meterRegistry.get("courses.concurrency.in-flight").tag("budget", "bulk").gauge().value()).isZero();
+        MockHttpServletResponse next = new MockHttpServletResponse();
+        filter.doFilter(bulkRequest(), next, new MockFilterChain());
+        assertThat(next.getStatus()).isEqualTo(200);
+    }
+
+    private static MockHttpServletRequest bulkRequest() {
+        return new MockHttpServletRequest("POST", "/api/courses/bulk");
+    }
+}
@@ -0,0 +1,53 @@
+package com.springapp.mongodb.config;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MongoFilterShapeTest {
+
+    @Test
+    void testFindFilterValuesAreMasked() {
+        BsonDocument find = BsonDocument.parse("""
+                {find: "course", filter: {_id: {$gt: "6650f1"}, published: true}, sort: {_id: 1}, limit: 101}""");
+
+        assertThat(MongoFilterShape.of("find", find)).isEqualTo("{_id: {$gt: ?}, published: ?}");
+    }
+
+    @Test
+    void testLogicalClausesKeepTheirStructure() {
+        BsonDocument count = BsonDocument.parse("""
+                {count: "course", query: {$or: [{title: {$regex: "Spring"}}, {version: {$in: [1, 2]}}]}}""");
+
+        assertThat(MongoFilterShape.of("count", count)).isEqualTo("{$or: [{title: {$regex: ?}}, {version: {$in: ?}}]}");
+    }
+
+    @Test
+    void testWriteStatementsUseTheFirstFilter() {
+        BsonDocument update = BsonDocument.parse("""
+                {update: "course", updates: [{q: {_id: "a", version: 3}, u: {$set: {title: "x"}}}]}""");
+        BsonDocument delete = BsonDocument.parse("""
+                {delete: "course", deletes: [{q: {_id: {$in: ["a", "b"]}}, limit: 0}]}""");
+
+        assertThat(MongoFilterShape.of("update", update)).isEqualTo("{_id: ?, version: ?}");
+        assertThat(MongoFilterShape.of("delete", delete)).isEqualTo("{_id: {$in: ?}}");
+    }
+
+    @Test
+    void testAggregateUsesTheFirstMatchStage() {
+        BsonDocument aggregate = BsonDocument.parse("""
+                {aggregate: "course", pipeline: [{$sort: {_id: 1}}, {$match: {published: false}}], cursor: {}}""");
+
+        assertThat(MongoFilterShape.of("aggregate", aggregate)).isEqualTo("{published: ?}");
+    }
+
+    @Test
+    void testCommandsWithoutFilterHaveNoShape() {
+        BsonDocument insert = BsonDocument.parse("""
+                {insert: "course", documents: [{title: "x"}]}""");
+
+        assertThat(MongoFilterShape.of("insert", insert)).isNull();
+        assertThat(MongoFilterShape.of("find", BsonDocument.parse("{find: 'course'}"))).isNull();
+    }
+}
@@ -11,10 +11,21 @@ import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ActiveProfiles("test")
@@ -91,4 +102,226 @@ class CourseControllerTest extends MongoDBTestContainerConfig {
                 .andExpect(jsonPath("$.title").value("Spring Boot 4"))
                 .andExpect(jsonPath("$.description").value("Test Containers"));
     }
+
+    @Test
+    void testGetAllCoursesIsPagedWithCursor() throws Exception {
+        for (String title : new String[]{"Kafka", "Redis", "MongoDB"}) {
+            mockMvc.perform(post("/api/courses")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new Course(title, "Paging", true))))
+                    .andExpect(status().isCreated());
+        }
+
+        String cursor = mockMvc.perform(get("/api/courses").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().exists("Link"))
+                .andReturn()
+                .getResponse()
+                .getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/api/courses").param("limit", "1").param("after", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+
+        mockMvc.perform(get("/api/courses").param("after", "%%%"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testExportStreamsNdjson() throws Exception {
+        mockMvc.perform(post("/api/courses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Course("Export", "Streamed", false))))
+                .andExpect(status().isCreated());
+
+        MvcResult started = mockMvc.perform(get("/api/courses/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(body.lines())
+                .isNotEmpty()
+                .allSatisfy(line -> assertThat(line).startsWith("{").endsWith("}"))
+                .anySatisfy(line -> assertThat(line).contains("\"title\":\"Export\""));
+    }
+
+    @Test
+    void testBulkInsertFromJsonArrayAndNdjson() throws Exception {
+        String array = objectMapper.writeValueAsString(List.of(
+                new Course("Bulk 1", "Array", true),
+                new Course("Bulk 2", "Array", false)));
+
+        mockMvc.perform(post("/api/courses/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(array))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.written").value(2))
+                .andExpect(jsonPath("$.failed").value(0));
+
+        String ndjson = objectMapper.writeValueAsString(new Course("Bulk 3", "Lines", true)) + "\n"
+                + objectMapper.writeValueAsString(new Course("Bulk 4", "Lines", true)) + "\n";
+
+        mockMvc.perform(post("/api/courses/bulk")
+                        .param("mode", "upsert")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.chunks[0].inserted").value(2));
+    }
+
+    @Test
+    void testConditionalGetAndPut() throws Exception {
+        String location = mockMvc.perform(post("/api/courses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Course("ETag", "Versioned", false))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getHeader("Location");
+
+        String etag = mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get(location).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        String changed = objectMapper.writeValueAsString(new Course("ETag", "Changed", true));
+        mockMvc.perform(put(location).header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(changed))
+                .andExpect(status().isOk());
+
+        // The first tag is stale now
+        mockMvc.perform(put(location).header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(changed))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get(location).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Changed"));
+    }
+
+    @Test
+    void testJsonAndCborAreTaggedApart() throws Exception {
+        String location = mockMvc.perform(post("/api/courses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Course("Representation", "Tagged", true))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getHeader("Location");
+
+        String jsonTag = mockMvc.perform(get(location).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Vary", containsString("Accept")))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+        String cborTag = mockMvc.perform(get(location).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+        assertThat(cborTag).isNotEqualTo(jsonTag);
+
+        // A JSON copy does not revalidate a CBOR request, and the other way round
+        mockMvc.perform(get(location).accept(MediaType.APPLICATION_CBOR).header("If-None-Match", jsonTag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(location).accept(MediaType.APPLICATION_CBOR).header("If-None-Match", cborTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("Vary", containsString("Accept")));
+        String jsonPageTag = mockMvc.perform(get("/api/courses"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+        mockMvc.perform(get("/api/courses").accept(MediaType.APPLICATION_CBOR).header("If-None-Match", jsonPageTag))
+                .andExpect(status().isOk());
+
+        // Either tag names the same version for If-Match
+        mockMvc.perform(patch(location).header("If-Match", cborTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"published\":false}"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testPatchOnlyChangesGivenFields() throws Exception {
+        String location = mockMvc.perform(post("/api/courses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Course("Patch", "Original", false))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getHeader("Location");
+
+        mockMvc.perform(patch(location)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"published\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Patch"))
+                .andExpect(jsonPath("$.description").value("Original"))
+                .andExpect(jsonPath("$.published").value(true))
+                .andExpect(jsonPath("$.version").value(1));
+
+        mockMvc.perform(patch("/api/courses/000000000000000000000000")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"published\":true}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testPutReplacesEveryField() throws Exception {
+        String location = mockMvc.perform(post("/api/courses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Course("Put", "Original", true))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getHeader("Location");
+
+        mockMvc.perform(put(location)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Put\",\"description\":null,\"published\":false}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").doesNotExist())
+                .andExpect(jsonPath("$.published").value(false));
+
+        mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Put"))
+                .andExpect(jsonPath("$.description").doesNotExist())
+                .andExpect(jsonPath("$.published").value(false));
+    }
+
+    @Test
+    void testFieldsProjectionReturnsOnlySelectedFields() throws Exception {
+        mockMvc.perform(post("/api/courses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Course("Projection", "Not selected", true))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/courses/course-titles").param("title", "Projection").param("fields", "id,title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").isString())
+                .andExpect(jsonPath("$[0].title").value("Projection"))
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].published").doesNotExist());
+
+        mockMvc.perform(get("/api/courses").param("fields", "title,password"))
+                .andExpect(status().isBadRequest());
+    }
 }
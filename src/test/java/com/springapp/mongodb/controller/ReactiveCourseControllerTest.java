@@ -0,0 +1,137 @@
+package com.springapp.mongodb.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springapp.mongodb.config.MongoDBTestContainerConfig;
+import com.springapp.mongodb.model.Course;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ReactiveCourseControllerTest extends MongoDBTestContainerConfig {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MongoTemplate mongoTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testCreateAndFetchCourse() throws Exception {
+        String location = perform(post("/api/reactive/courses")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new Course("Reactor", "Non-blocking", true))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getHeader("Location");
+
+        perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Reactor"))
+                .andExpect(jsonPath("$.version").value(0));
+
+        perform(get("/api/reactive/courses/000000000000000000000000"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testCreateStampsLastModified() throws Exception {
+        String location = perform(post("/api/reactive/courses")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new Course("Audited", "Reactive", false))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getHeader("Location");
+        String id = location.substring(location.lastIndexOf('/') + 1);
+
+        assertThat(mongoTemplate.findById(id, Course.class))
+                .isNotNull()
+                .extracting(Course::getLastModified)
+                .isNotNull();
+        perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+        mockMvc.perform(get("/api/courses/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void testWritesAreVisibleToTheBlockingApi() throws Exception {
+        String location = mockMvc.perform(post("/api/courses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Course("Shared", "Blocking", false))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getHeader("Location");
+        String id = location.substring(location.lastIndexOf('/') + 1);
+
+        // Warm the cache through the blocking API, then change the course through the reactive one
+        mockMvc.perform(get("/api/courses/" + id))
+                .andExpect(jsonPath("$.published").value(false));
+
+        perform(patch("/api/reactive/courses/" + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"published\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+
+        mockMvc.perform(get("/api/courses/" + id))
+                .andExpect(jsonPath("$.published").value(true));
+    }
+
+    @Test
+    void testExportStreamsNdjson() throws Exception {
+        perform(post("/api/reactive/courses")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new Course("Flux", "Streamed", true))))
+                .andExpect(status().isCreated());
+
+        String body = perform(get("/api/reactive/courses/export").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(body.lines())
+                .isNotEmpty()
+                .anySatisfy(line -> assertThat(line).contains("\"title\":\"Flux\""));
+    }
+
+    private ResultActions perform(RequestBuilder request) throws Exception {
+        MvcResult started = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+}
@@ -0,0 +1,79 @@
+package com.springapp.mongodb.diagnostics;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryPlanTest {
+
+    @Test
+    void testCollectionScanOnAnIndexedShapeIsARegression() {
+        Document explain = Document.parse("""
+                {queryPlanner: {winningPlan: {stage: 'COLLSCAN', filter: {title: {$regex: 'boot'}}}},
+                 executionStats: {nReturned: 3, executionTimeMillis: 12, totalKeysExamined: 0, totalDocsExamined: 5000}}
+                """);
+
+        QueryPlan plan = QueryPlan.from("findByTitleContaining", "{title: {$regex: ?}}", false, explain);
+
+        assertThat(plan.plan()).isEqualTo("COLLSCAN");
+        assertThat(plan.index()).isNull();
+        assertThat(plan.docsExamined()).isEqualTo(5000);
+        assertThat(plan.returned()).isEqualTo(3);
+        assertThat(plan.executionTimeMillis()).isEqualTo(12);
+        assertThat(plan.regression()).isTrue();
+    }
+
+    @Test
+    void testCollectionScanOnAFullReadIsExpected() {
+        Document explain = Document.parse("{queryPlanner: {winningPlan: {stage: 'COLLSCAN'}}}");
+
+        assertThat(QueryPlan.from("streamAll", "{}", true, explain).regression()).isFalse();
+    }
+
+    @Test
+    void testIndexScanIsFoundBelowFetchAndLimit() {
+        Document explain = Document.parse("""
+                {queryPlanner: {winningPlan: {stage: 'LIMIT', inputStage: {stage: 'FETCH',
+                     inputStage: {stage: 'IXSCAN', indexName: '_id_', keyPattern: {_id: 1}}}}},
+                 executionStats: {nReturned: 101, totalKeysExamined: 101, totalDocsExamined: 101}}
+                """);
+
+        QueryPlan plan = QueryPlan.from("findAllByOrderByIdAsc", "{} sort {_id: 1}", false, explain);
+
+        assertThat(plan.plan()).isEqualTo("IXSCAN");
+        assertThat(plan.index()).isEqualTo("_id_");
+        assertThat(plan.stages()).containsExactly("LIMIT", "FETCH", "IXSCAN");
+        assertThat(plan.regression()).isFalse();
+    }
+
+    @Test
+    void testSlotBasedAndIdLookupPlans() {
+        Document slotBased = Document.parse("""
+                {queryPlanner: {winningPlan: {queryPlan: {stage: 'FETCH',
+                     inputStage: {stage: 'IXSCAN', indexName: 'title'}}, slotBasedPlan: {}}}}
+                """);
+        Document idLookup = Document.parse("{queryPlanner: {winningPlan: {stage: 'EXPRESS_IXSCAN'}}}");
+
+        assertThat(QueryPlan.from("findByTitleContaining", "", false, slotBased).index()).isEqualTo("title");
+        QueryPlan byId = QueryPlan.from("findById", "{_id: ?}", false, idLookup);
+        assertThat(byId.plan()).isEqualTo("IXSCAN");
+        assertThat(byId.index()).isEqualTo("_id_");
+    }
+
+    @Test
+    void testAggregationPlanIsReadFromTheCursorStage() {
+        Document explain = Document.parse("""
+                {stages: [{$cursor: {queryPlanner: {winningPlan: {stage: 'PROJECTION_SIMPLE',
+                     inputStage: {stage: 'COLLSCAN'}}}}},
+                          {$facet: {}}]}
+                """);
+
+        QueryPlan plan = QueryPlan.from("aggregateStats", "[$facet]", true, explain);
+
+        assertThat(plan.plan()).isEqualTo("COLLSCAN");
+        assertThat(plan.stages()).containsExactly("PROJECTION_SIMPLE", "COLLSCAN");
+        assertThat(plan.docsExamined()).isZero();
+        assertThat(plan.regression()).isFalse();
+    }
+}
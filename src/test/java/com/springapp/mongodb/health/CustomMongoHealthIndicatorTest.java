@@ -0,0 +1,80 @@
+package com.springapp.mongodb.health;
+
+import com.mongodb.MongoTimeoutException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.Status;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CustomMongoHealthIndicatorTest {
+
+    private final MongoClient mongoClient = mock(MongoClient.class);
+    private final MongoDatabase database = mock(MongoDatabase.class);
+    private final CustomMongoHealthIndicator indicator = new CustomMongoHealthIndicator(mongoClient,
+            mock(TaskScheduler.class));
+
+    @BeforeEach
+    void setUp() {
+        when(mongoClient.getDatabase("courses")).thenReturn(database);
+        when(database.withTimeout(anyLong(), eq(TimeUnit.MILLISECONDS))).thenReturn(database);
+        ReflectionTestUtils.setField(indicator, "databaseName", "courses");
+        ReflectionTestUtils.setField(indicator, "timeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(indicator, "staleAfter", Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testUnknownBeforeTheFirstPing() {
+        Health health = indicator.health();
+
+        assertThat(health.getStatus()).isEqualTo(Status.UNKNOWN);
+        assertThat(health.getDetails()).containsEntry("MongoDB", "Not checked yet");
+    }
+
+    @Test
+    void testCountsConsecutiveFailuresUntilAPingSucceeds() {
+        when(database.runCommand(any(Bson.class)))
+                .thenThrow(new MongoTimeoutException("Timed out"))
+                .thenThrow(new MongoTimeoutException("Timed out"))
+                .thenReturn(new Document("ok", 1));
+
+        indicator.refresh();
+        indicator.refresh();
+        Health failing = indicator.health();
+        indicator.refresh();
+        Health recovered = indicator.health();
+
+        assertThat(failing.getStatus()).isEqualTo(Status.DOWN);
+        assertThat(failing.getDetails()).containsEntry("consecutiveFailures", 2).containsEntry("Error", "Timed out");
+        assertThat(recovered.getStatus()).isEqualTo(Status.UP);
+        assertThat(recovered.getDetails()).containsEntry("consecutiveFailures", 0);
+    }
+
+    @Test
+    void testDownOnceTheLastPingIsStale() throws InterruptedException {
+        when(database.runCommand(any(Bson.class))).thenReturn(new Document("ok", 1));
+        ReflectionTestUtils.setField(indicator, "staleAfter", Duration.ofMillis(1));
+
+        indicator.refresh();
+        Thread.sleep(20);
+        Health health = indicator.health();
+
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+        assertThat((String) health.getDetails().get("Error")).contains("the health refresh is not running");
+    }
+}
@@ -0,0 +1,213 @@
+package com.springapp.mongodb.job;
+
+import com.springapp.mongodb.model.BulkMode;
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.model.Job;
+import com.springapp.mongodb.model.JobStatus;
+import com.springapp.mongodb.model.JobType;
+import com.springapp.mongodb.search.CourseTitleIndex;
+import com.springapp.mongodb.service.CourseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class JobServiceTest {
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private JobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+        jobService = new JobService(executor);
+        ReflectionTestUtils.setField(jobService, "retention", Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testJobReportsProgressAndResult() throws Exception {
+        Job submitted = jobService.submit(JobType.DELETE_ALL_COURSES, context -> {
+            context.setTotal(3);
+            context.advance(2);
+            context.advance(1);
+            return "done";
+        });
+
+        Job finished = awaitFinished(submitted.id());
+        assertThat(finished.status()).isEqualTo(JobStatus.SUCCEEDED);
+        assertThat(finished.processed()).isEqualTo(3);
+        assertThat(finished.total()).isEqualTo(3);
+        assertThat(finished.result()).isEqualTo("done");
+        assertThat(finished.startedAt()).isNotNull();
+        assertThat(finished.itemsPerSecond()).isPositive();
+    }
+
+    @Test
+    void testFailedJobKeepsTheError() throws Exception {
+        Job submitted = jobService.submit(JobType.REBUILD_TITLE_INDEX, context -> {
+            throw new IllegalStateException("Title index rebuild already running");
+        });
+
+        Job finished = awaitFinished(submitted.id());
+        assertThat(finished.status()).isEqualTo(JobStatus.FAILED);
+        assertThat(finished.error()).isEqualTo("Title index rebuild already running");
+    }
+
+    @Test
+    void testJobFailsOnError() throws Exception {
+        Job submitted = jobService.submit(JobType.REBUILD_TITLE_INDEX, context -> {
+            throw new OutOfMemoryError("Java heap space");
+        });
+
+        Job finished = awaitFinished(submitted.id());
+        assertThat(finished.status()).isEqualTo(JobStatus.FAILED);
+        assertThat(finished.error()).isEqualTo("Java heap space");
+        assertThat(finished.finishedAt()).isNotNull();
+    }
+
+    @Test
+    void testRunningJobStopsAtItsNextCancellationCheck() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        Job submitted = jobService.submit(JobType.DELETE_ALL_COURSES, context -> {
+            context.advance(1);
+            started.countDown();
+            while (true) {
+                context.checkCancelled();
+                Thread.onSpinWait();
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        jobService.cancel(submitted.id());
+
+        Job finished = awaitFinished(submitted.id());
+        assertThat(finished.status()).isEqualTo(JobStatus.CANCELLED);
+        assertThat(finished.processed()).isEqualTo(1);
+    }
+
+    @Test
+    void testQueuedJobCancelledBeforeItStartsNeverRuns() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        jobService.submit(JobType.IMPORT_COURSES, context -> {
+            awaitQuietly(release);
+            return null;
+        });
+        Job queued = jobService.submit(JobType.IMPORT_COURSES, context -> {
+            context.advance(1);
+            return null;
+        });
+        assertThat(queued.status()).isEqualTo(JobStatus.QUEUED);
+
+        assertThat(jobService.cancel(queued.id())).get()
+                .extracting(Job::status).isEqualTo(JobStatus.CANCELLED);
+        release.countDown();
+
+        Job finished = awaitFinished(queued.id());
+        assertThat(finished.startedAt()).isNull();
+        assertThat(finished.processed()).isZero();
+    }
+
+    @Test
+    void testQueuedImportCancelledBeforeItStartsDeletesItsSpool() throws Exception {
+        CourseService courseService = mock(CourseService.class);
+        CourseJobs courseJobs = new CourseJobs(courseService, mock(CourseTitleIndex.class), jobService);
+        CountDownLatch release = new CountDownLatch(1);
+        jobService.submit(JobType.DELETE_ALL_COURSES, context -> awaitQuietly(release));
+        Set<Path> before = spools();
+
+        Job queued = courseJobs.importCourses(new ByteArrayInputStream("[]".getBytes(StandardCharsets.UTF_8)),
+                BulkMode.INSERT, JsonMapper.shared().readerFor(Course.class));
+        Set<Path> spooled = spools();
+        spooled.removeAll(before);
+        assertThat(spooled).hasSize(1);
+
+        jobService.cancel(queued.id());
+        release.countDown();
+
+        Job finished = awaitFinished(queued.id());
+        assertThat(finished.status()).isEqualTo(JobStatus.CANCELLED);
+        awaitDeleted(spooled.iterator().next());
+        verifyNoInteractions(courseService);
+    }
+
+    @Test
+    void testFullQueueRejectsNewJobs() {
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            jobService.submit(JobType.IMPORT_COURSES, context -> awaitQuietly(release));
+            jobService.submit(JobType.IMPORT_COURSES, context -> awaitQuietly(release));
+
+            assertThatThrownBy(() -> jobService.submit(JobType.IMPORT_COURSES, context -> null))
+                    .isInstanceOf(TaskRejectedException.class);
+            assertThat(jobService.findAll()).hasSize(2);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private Job awaitFinished(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            Job job = jobService.findById(id).orElseThrow();
+            if (job.status().isFinished() && job.finishedAt() != null) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job " + id + " did not finish");
+    }
+
+    private static Set<Path> spools() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("courses-import-"))
+                    .collect(Collectors.toCollection(HashSet::new));
+        }
+    }
+
+    // The job is marked cancelled before the executor thread reaches it and discards its spool
+    private static void awaitDeleted(Path spool) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (Files.exists(spool) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(spool).doesNotExist();
+    }
+
+    private static Object awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "released";
+    }
+}
@@ -0,0 +1,119 @@
+package com.springapp.mongodb.repository;
+
+import com.springapp.mongodb.model.Course;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseCodecTest {
+
+    private final CourseCodec codec = new CourseCodec();
+    private final DocumentCodec documentCodec = new DocumentCodec();
+    private MappingMongoConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        var conversions = new MongoCustomConversions(List.of());
+        var mappingContext = new MongoMappingContext();
+        mappingContext.setInitialEntitySet(Set.of(Course.class));
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+    }
+
+    @Test
+    void testWritesWhatTheConverterWrites() {
+        Course course = course(new ObjectId().toHexString());
+        Document expected = new Document();
+        converter.write(course, expected);
+
+        assertThat(toDocument(encode(course))).isEqualTo(expected);
+        assertThat(expected.get("_id")).isInstanceOf(ObjectId.class);
+    }
+
+    @Test
+    void testReadsWhatTheConverterReads() {
+        for (Course course : List.of(course(new ObjectId().toHexString()), course("spring-boot-4"), new Course())) {
+            Document stored = new Document();
+            converter.write(course, stored);
+
+            Course decoded = decode(toBson(stored));
+
+            assertThat(decoded).usingRecursiveComparison().isEqualTo(converter.read(Course.class, stored));
+        }
+    }
+
+    @Test
+    void testToleratesNullsOtherNumberTypesAndUnknownFields() {
+        Document stored = new Document("_id", 42)
+                .append("title", null)
+                .append("published", true)
+                .append("version", 3)
+                .append("tags", List.of("spring", "mongodb"))
+                .append("lastModified", new Date(1_700_000_000_000L));
+
+        Course decoded = decode(toBson(stored));
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(converter.read(Course.class, stored));
+        assertThat(decoded.getId()).isEqualTo("42");
+        assertThat(decoded.getVersion()).isEqualTo(3L);
+    }
+
+    private static Course course(String id) {
+        Course course = new Course("Spring Boot 4", "REST APIs with Spring Boot and MongoDB", true);
+        course.setId(id);
+        course.setVersion(2L);
+        course.setLastModified(Instant.ofEpochMilli(1_700_000_000_123L));
+        return course;
+    }
+
+    private byte[] encode(Course course) {
+        var buffer = new BasicOutputBuffer();
+        try (var writer = new BsonBinaryWriter(buffer)) {
+            codec.encode(writer, course, EncoderContext.builder().build());
+        }
+        return buffer.toByteArray();
+    }
+
+    private Course decode(byte[] bson) {
+        try (var reader = new BsonBinaryReader(ByteBuffer.wrap(bson))) {
+            return codec.decode(reader, DecoderContext.builder().build());
+        }
+    }
+
+    private byte[] toBson(Document document) {
+        var buffer = new BasicOutputBuffer();
+        try (var writer = new BsonBinaryWriter(buffer)) {
+            documentCodec.encode(writer, document, EncoderContext.builder().build());
+        }
+        return buffer.toByteArray();
+    }
+
+    private Document toDocument(byte[] bson) {
+        try (var reader = new BsonBinaryReader(ByteBuffer.wrap(bson))) {
+            return documentCodec.decode(reader, DecoderContext.builder().build());
+        }
+    }
+}
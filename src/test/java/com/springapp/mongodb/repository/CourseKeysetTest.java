@@ -0,0 +1,68 @@
+package com.springapp.mongodb.repository;
+
+import com.springapp.mongodb.model.Course;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseKeysetTest {
+
+    private MongoMappingContext mappingContext;
+    private QueryMapper queryMapper;
+
+    @BeforeEach
+    void setUp() {
+        var conversions = new MongoCustomConversions(List.of());
+        mappingContext = new MongoMappingContext();
+        mappingContext.setInitialEntitySet(Set.of(Course.class));
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+
+        var converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        queryMapper = new QueryMapper(converter);
+    }
+
+    @Test
+    void testAfterAnObjectIdStaysWithinObjectIds() {
+        ObjectId id = new ObjectId();
+
+        assertThat(mapped(CourseKeyset.after(id.toHexString())))
+                .isEqualTo(new Document("_id", new Document("$gt", id)));
+    }
+
+    @Test
+    void testAfterAStringIdGoesOnIntoObjectIds() {
+        assertThat(mapped(CourseKeyset.after("spring-boot-4"))).isEqualTo(new Document("$or", List.of(
+                new Document("_id", new Document("$gt", "spring-boot-4")),
+                new Document("_id", new Document("$gte", new ObjectId("000000000000000000000000"))))));
+    }
+
+    @Test
+    void testIdOrderPutsStringsBeforeObjectIds() {
+        String objectId = new ObjectId().toHexString();
+
+        assertThat(Stream.of(objectId, "spring-boot-4", "docker").sorted(CourseKeyset.ID_ORDER))
+                .containsExactly("docker", "spring-boot-4", objectId);
+    }
+
+    private Document mapped(Criteria criteria) {
+        return queryMapper.getMappedObject(new Query(criteria).getQueryObject(),
+                mappingContext.getRequiredPersistentEntity(Course.class));
+    }
+}
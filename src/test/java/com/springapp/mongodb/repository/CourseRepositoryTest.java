@@ -1,13 +1,17 @@
 package com.springapp.mongodb.repository;
 
 import com.springapp.mongodb.config.MongoDBTestContainerConfig;
+import com.springapp.mongodb.model.BulkMode;
 import com.springapp.mongodb.model.Course;
+import org.bson.Document;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -20,6 +24,9 @@ class CourseRepositoryTest extends MongoDBTestContainerConfig {
     @Autowired
     private CourseRepository repository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     @Test
     void testSaveAndFind() {
         repository.deleteAll();
@@ -32,4 +39,25 @@ class CourseRepositoryTest extends MongoDBTestContainerConfig {
         assertThat(found).isPresent();
         assertThat(found.get().getTitle()).isEqualTo("Spring Boot 4");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testUpsertStartsAtVersionZeroAndStoresNoNulls() {
+        Course course = new Course("Upserted", null, true);
+        course.setId("upsert-1");
+
+        repository.bulkWrite(0, List.of(course), BulkMode.UPSERT);
+        Document created = mongoTemplate.getCollection("courses").find(new Document("_id", "upsert-1")).first();
+
+        assertThat(created).isNotNull();
+        assertThat(created.get("version")).isEqualTo(0L);
+        assertThat(created).doesNotContainKey("description");
+
+        course.setDescription("Described");
+        repository.bulkWrite(1, List.of(course), BulkMode.UPSERT);
+        assertThat(repository.findById("upsert-1")).get()
+                .satisfies(updated -> {
+                    assertThat(updated.getVersion()).isEqualTo(1L);
+                    assertThat(updated.getDescription()).isEqualTo("Described");
+                });
+    }
+}
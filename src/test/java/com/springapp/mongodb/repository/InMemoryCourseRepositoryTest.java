@@ -0,0 +1,248 @@
+package com.springapp.mongodb.repository;
+
+import com.springapp.mongodb.model.BulkMode;
+import com.springapp.mongodb.model.BulkWriteReport;
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.model.CourseChange;
+import com.springapp.mongodb.model.CourseField;
+import com.springapp.mongodb.model.CourseProjection;
+import com.springapp.mongodb.model.CourseStats;
+import com.springapp.mongodb.model.CourseUpdate;
+import com.springapp.mongodb.model.CourseVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class InMemoryCourseRepositoryTest {
+
+    private final InMemoryCourseRepository repository = new InMemoryCourseRepository();
+
+    @Test
+    void testSaveAssignsIdAndVersionAndChecksVersionOnUpdate() {
+        Course saved = repository.save(new Course("Spring Boot 4", "Desc", true));
+
+        assertThat(saved.getId()).hasSize(24);
+        assertThat(saved.getVersion()).isZero();
+        assertThat(saved.getLastModified()).isNotNull();
+
+        saved.setTitle("Spring Boot 4.1");
+        assertThat(repository.save(saved).getVersion()).isEqualTo(1);
+
+        saved.setVersion(0L);
+        assertThatThrownBy(() -> repository.save(saved)).isInstanceOf(OptimisticLockingFailureException.class);
+        assertThatThrownBy(() -> repository.insert(saved)).isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void testReturnedCoursesAreCopies() {
+        Course saved = repository.save(new Course("Docker", "Containers", true));
+
+        repository.findById(saved.getId()).orElseThrow().setTitle("Changed in place");
+
+        assertThat(repository.findById(saved.getId())).get().extracting(Course::getTitle).isEqualTo("Docker");
+    }
+
+    @Test
+    void testKeysetPagesFollowIdOrder() {
+        for (String title : List.of("Kafka", "Redis", "MongoDB")) {
+            repository.save(new Course(title, "Paging", true));
+        }
+
+        List<Course> first = repository.findAllByOrderByIdAsc(Limit.of(2));
+        List<Course> second = repository.findByIdGreaterThanOrderByIdAsc(first.getLast().getId(), Limit.of(2));
+
+        assertThat(first).extracting(Course::getTitle).containsExactly("Kafka", "Redis");
+        assertThat(second).extracting(Course::getTitle).containsExactly("MongoDB");
+        assertThat(repository.findPage(first.getLast().getId(), 2, EnumSet.of(CourseField.TITLE)))
+                .singleElement()
+                .satisfies(projection -> assertThat(projection.fields()).containsOnlyKeys("title"));
+    }
+
+    @Test
+    void testKeysetPagesWalkStringIdsBeforeObjectIds() {
+        Course generated = repository.save(new Course("Generated", "Paging", true));
+        for (String id : List.of("spring-boot-4", "docker", "kafka")) {
+            Course course = new Course(id, "Paging", true);
+            course.setId(id);
+            repository.insert(course);
+        }
+
+        List<String> walked = new ArrayList<>();
+        List<Course> page = repository.findAllByOrderByIdAsc(Limit.of(2));
+        while (!page.isEmpty()) {
+            page.forEach(course -> walked.add(course.getId()));
+            page = repository.findByIdGreaterThanOrderByIdAsc(page.getLast().getId(), Limit.of(2));
+        }
+
+        assertThat(walked).containsExactly("docker", "kafka", "spring-boot-4", generated.getId());
+        assertThat(repository.findVersionsByIdGreaterThanOrderByIdAsc("spring-boot-4", Limit.of(2)))
+                .extracting(CourseVersion::id)
+                .containsExactly(generated.getId());
+        assertThat(repository.findPage("kafka", 2, EnumSet.of(CourseField.TITLE)))
+                .extracting(CourseProjection::id)
+                .containsExactly("spring-boot-4", generated.getId());
+    }
+
+    @Test
+    void testWritesStampMillisecondsLikeMongo() {
+        Course saved = repository.save(new Course("Stamped", "Desc", true));
+        Course inserted = repository.insert(new Course("Inserted", "Desc", true));
+        Course bulk = new Course("Bulk", "Desc", true);
+        bulk.setId("bulk-1");
+        repository.bulkWrite(0, List.of(bulk), BulkMode.UPSERT);
+        Course updated = repository.save(repository.findById(saved.getId()).orElseThrow());
+
+        assertThat(List.of(saved, inserted, repository.findById("bulk-1").orElseThrow(), updated))
+                .extracting(Course::getLastModified)
+                .allSatisfy(lastModified -> assertThat(lastModified.getNano() % 1_000_000).isZero());
+    }
+
+    @Test
+    void testTitleSearchMatchesSubstrings() {
+        repository.save(new Course("Spring Boot 4", "Desc", true));
+        repository.save(new Course("Spring Data MongoDB", "Desc", true));
+
+        assertThat(repository.findByTitleContaining("Boot")).extracting(Course::getTitle).containsExactly("Spring Boot 4");
+        assertThat(repository.findByTitleContaining("boot")).isEmpty();
+    }
+
+    @Test
+    void testQueryByExampleMatchesTheProbesProperties() {
+        repository.save(new Course("Spring Boot 4", "REST APIs", true));
+        repository.save(new Course("Spring Data", "Repositories", false));
+        repository.save(new Course("Docker", "Containers", true));
+
+        Course probe = new Course("spring", null, true);
+        ExampleMatcher startingIgnoringCase = ExampleMatcher.matching()
+                .withMatcher("title", match -> match.startsWith().ignoreCase());
+
+        assertThat(repository.findAll(Example.of(probe, startingIgnoringCase), Sort.by("title")))
+                .extracting(Course::getTitle).containsExactly("Spring Boot 4");
+        assertThat(repository.count(Example.of(new Course(null, null, true)))).isEqualTo(2);
+        assertThat(repository.exists(Example.of(new Course("Docker", null, false)))).isFalse();
+        assertThat(repository.findOne(Example.of(new Course("Docker", null, true))))
+                .get().extracting(Course::getDescription).isEqualTo("Containers");
+        assertThatThrownBy(() -> repository.findOne(Example.of(new Course(null, null, true))))
+                .isInstanceOf(IncorrectResultSizeDataAccessException.class);
+
+        ExampleMatcher anyIgnoringPublished = ExampleMatcher.matchingAny().withIgnorePaths("published")
+                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING);
+        Page<Course> page = repository.findAll(Example.of(new Course("Data", "Containers", false), anyIgnoringPublished),
+                PageRequest.of(0, 1, Sort.by("title")));
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(Course::getTitle).containsExactly("Docker");
+
+        Course last = repository.findBy(Example.of(new Course(null, null, true)),
+                query -> query.sortBy(Sort.by(Sort.Direction.DESC, "title")).firstValue());
+        assertThat(last.getTitle()).isEqualTo("Spring Boot 4");
+    }
+
+    @Test
+    void testQueryByExampleReadsProjections() {
+        repository.save(new Course("Spring Boot 4", "REST APIs", true));
+        repository.save(new Course("Docker", "Containers", false));
+
+        List<TitleOnly> titles = repository.findBy(Example.of(new Course(null, null, true)),
+                query -> query.as(TitleOnly.class).all());
+        TitleAndPublished docker = repository.findBy(Example.of(new Course("Docker", null, false)),
+                query -> query.as(TitleAndPublished.class).oneValue());
+
+        assertThat(titles).extracting(TitleOnly::getTitle).containsExactly("Spring Boot 4");
+        assertThat(docker).isEqualTo(new TitleAndPublished("Docker", false));
+    }
+
+    @Test
+    void testConditionalUpdate() {
+        Course saved = repository.save(new Course("Patch", "Original", false));
+
+        assertThat(repository.update(saved.getId(), new CourseUpdate(null, null, true), 0L))
+                .get()
+                .satisfies(change -> {
+                    assertThat(change.before().isPublished()).isFalse();
+                    assertThat(change.after().isPublished()).isTrue();
+                    assertThat(change.after().getDescription()).isEqualTo("Original");
+                    assertThat(change.after().getVersion()).isEqualTo(1);
+                    assertThat(repository.findById(saved.getId())).get()
+                            .usingRecursiveComparison().isEqualTo(change.after());
+                });
+        assertThatThrownBy(() -> repository.update(saved.getId(), new CourseUpdate("Stale", null, null), 0L))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(repository.update("missing", new CourseUpdate("Gone", null, null), null)).isEmpty();
+    }
+
+    @Test
+    void testReplacementClearsMissingFields() {
+        Course saved = repository.save(new Course("Put", "Original", true));
+        Course replacement = new Course("Put", null, false);
+
+        assertThat(repository.update(saved.getId(), CourseUpdate.from(replacement), null))
+                .get()
+                .extracting(CourseChange::after)
+                .satisfies(updated -> {
+                    assertThat(updated.getDescription()).isNull();
+                    assertThat(updated.isPublished()).isFalse();
+                });
+        assertThat(repository.update(saved.getId(), new CourseUpdate(null, "Patched", null), null))
+                .get()
+                .extracting(change -> change.after().getTitle())
+                .isEqualTo("Put");
+    }
+
+    @Test
+    void testBulkWriteReportsDuplicatesAndUpserts() {
+        Course existing = repository.save(new Course("Existing", "Desc", true));
+        Course upsert = new Course("Upserted", "Desc", false);
+        upsert.setId(existing.getId());
+        Course duplicate = new Course("Duplicate", "Desc", false);
+        duplicate.setId(existing.getId());
+
+        BulkWriteReport.ChunkResult upserts = repository.bulkWrite(0, List.of(upsert), BulkMode.UPSERT);
+        BulkWriteReport.ChunkResult inserts = repository.bulkWrite(1,
+                List.of(new Course("New", "Desc", true), duplicate), BulkMode.INSERT);
+
+        assertThat(upserts.modified()).isEqualTo(1);
+        assertThat(repository.findById(existing.getId())).get().extracting(Course::getTitle).isEqualTo("Upserted");
+        assertThat(inserts.inserted()).isEqualTo(1);
+        assertThat(inserts.errors()).singleElement().extracting(BulkWriteReport.ItemError::index).isEqualTo(1);
+        assertThat(repository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void testStatsCountPublishedAndTitlePrefixes() {
+        repository.save(new Course("Spring Boot 4", "Desc", true));
+        repository.save(new Course("Spring Data", "Desc", false));
+        Course docker = repository.save(new Course("Docker", "Desc", true));
+
+        CourseStats stats = repository.aggregateStats(1);
+        assertThat(stats.total()).isEqualTo(3);
+        assertThat(stats.published()).isEqualTo(2);
+        assertThat(stats.unpublished()).isEqualTo(1);
+        assertThat(stats.titlePrefixes()).containsExactly(entry("D", 1L), entry("S", 2L));
+
+        assertThat(repository.findAndDeleteById(docker.getId())).get().extracting(Course::getTitle).isEqualTo("Docker");
+        assertThat(repository.findAndDeleteById(docker.getId())).isEmpty();
+        assertThat(repository.aggregateStats(3).titlePrefixes()).containsExactly(entry("Spr", 2L));
+    }
+
+    interface TitleOnly {
+        String getTitle();
+    }
+
+    record TitleAndPublished(String title, boolean published) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.springapp.mongodb.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    @Test
+    void testSearchMatchesSubstringsCaseSensitively() {
+        TrigramIndex index = new TrigramIndex();
+        index.put("1", "Spring Boot 4");
+        index.put("2", "Spring Data MongoDB");
+        index.put("3", "Docker");
+
+        assertThat(index.search("Spring")).containsExactly("1", "2");
+        assertThat(index.search("Boot")).containsExactly("1");
+        assertThat(index.search("spring")).isEmpty();
+        assertThat(index.search("Kubernetes")).isEmpty();
+    }
+
+    @Test
+    void testCandidatesAreVerifiedAgainstTheTitle() {
+        TrigramIndex index = new TrigramIndex();
+        // Shares every trigram of "abcabc" without containing it
+        index.put("1", "abcab");
+        index.put("2", "xabcabcx");
+
+        assertThat(index.search("abcabc")).containsExactly("2");
+    }
+
+    @Test
+    void testShortQueriesScanTitles() {
+        TrigramIndex index = new TrigramIndex();
+        index.put("1", "Go");
+        index.put("2", "Java");
+
+        assertThat(index.search("o")).containsExactly("1");
+        assertThat(index.search("")).containsExactly("1", "2");
+    }
+
+    @Test
+    void testUpdatesAndRemovalsAreReflected() {
+        TrigramIndex index = new TrigramIndex();
+        index.put("1", "Kafka Streams");
+        index.put("2", "Kafka Connect");
+
+        index.put("1", "Redis Streams");
+        index.remove("2");
+        index.put("3", "Kafka Basics");
+
+        assertThat(index.search("Kafka")).containsExactly("3");
+        assertThat(index.search("Streams")).containsExactly("1");
+        assertThat(index.size()).isEqualTo(2);
+    }
+}
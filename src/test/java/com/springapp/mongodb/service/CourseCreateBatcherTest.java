@@ -0,0 +1,202 @@
+package com.springapp.mongodb.service;
+
+import com.springapp.mongodb.exception.CreateQueueFullException;
+import com.springapp.mongodb.model.BulkMode;
+import com.springapp.mongodb.model.BulkWriteReport;
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.repository.CourseRepository;
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CourseCreateBatcherTest {
+
+    private static final String CALLER_KEY = "course-create-batcher-test.caller";
+    // Stands in for the trace and observation thread locals that callers bring along
+    private static final ThreadLocal<String> CALLER = new ThreadLocal<>();
+
+    private final CourseRepository repository = mock(CourseRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private final List<String> flushContexts = new CopyOnWriteArrayList<>();
+    // Holds the first batch in the repository until released, so later creates queue up behind it
+    private final CountDownLatch firstBatchWriting = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+    private CourseCreateBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        ContextRegistry.getInstance().registerThreadLocalAccessor(CALLER_KEY, CALLER);
+        when(repository.bulkWrite(anyInt(), anyList(), eq(BulkMode.INSERT))).thenAnswer(invocation -> {
+            List<Course> courses = invocation.getArgument(1);
+            if (batchSizes.isEmpty()) {
+                firstBatchWriting.countDown();
+                releaseFirstBatch.await(5, TimeUnit.SECONDS);
+            }
+            batchSizes.add(courses.size());
+            flushContexts.add(String.valueOf(CALLER.get()));
+            List<BulkWriteReport.ItemError> errors = new ArrayList<>();
+            for (int i = 0; i < courses.size(); i++) {
+                if ("duplicate".equals(courses.get(i).getTitle())) {
+                    errors.add(new BulkWriteReport.ItemError(i, 11000, "E11000 duplicate key error"));
+                } else {
+                    courses.get(i).setId(new ObjectId().toHexString());
+                }
+            }
+            return new BulkWriteReport.ChunkResult(0, courses.size(), courses.size() - errors.size(), 0, 0,
+                    errors.size(), errors);
+        });
+        batcher = new CourseCreateBatcher(repository, meterRegistry, Tracer.NOOP, new SimpleAsyncTaskExecutor());
+        ReflectionTestUtils.setField(batcher, "enabled", true);
+        ReflectionTestUtils.setField(batcher, "maxBatchSize", 100);
+        ReflectionTestUtils.setField(batcher, "maxDelay", Duration.ofMillis(5));
+        ReflectionTestUtils.setField(batcher, "queueCapacity", 10);
+        ReflectionTestUtils.setField(batcher, "enqueueTimeout", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(batcher, "writeTimeout", Duration.ofSeconds(5));
+        batcher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseFirstBatch.countDown();
+        batcher.stop();
+        callers.shutdownNow();
+        ContextRegistry.getInstance().removeThreadLocalAccessor(CALLER_KEY);
+    }
+
+    @Test
+    void testConcurrentCreatesShareOneBulkWrite() throws Exception {
+        Future<Course> first = callers.submit(() -> batcher.insert(course("first")));
+        assertThat(firstBatchWriting.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<Future<Course>> queued = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            String title = "queued " + i;
+            queued.add(callers.submit(() -> batcher.insert(course(title))));
+        }
+        awaitQueued(10);
+        releaseFirstBatch.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getId()).isNotNull();
+        for (Future<Course> created : queued) {
+            assertThat(created.get(5, TimeUnit.SECONDS).getId()).isNotNull();
+        }
+        assertThat(batchSizes).containsExactly(1, 10);
+        assertThat(meterRegistry.get("courses.create.batch.size").summary().max()).isEqualTo(10);
+    }
+
+    @Test
+    void testWriteErrorOnlyFailsItsOwnCaller() throws Exception {
+        releaseFirstBatch.countDown();
+        Future<Course> duplicate = callers.submit(() -> batcher.insert(course("duplicate")));
+        Future<Course> created = callers.submit(() -> batcher.insert(course("created")));
+
+        assertThat(created.get(5, TimeUnit.SECONDS).getId()).isNotNull();
+        assertThatThrownBy(() -> duplicate.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void testBatchIsWrittenInTheFirstCallersContext() throws Exception {
+        Future<Course> first = callers.submit(() -> {
+            CALLER.set("first");
+            return batcher.insert(course("first"));
+        });
+        assertThat(firstBatchWriting.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<Course> second = callers.submit(() -> {
+            CALLER.set("second");
+            return batcher.insert(course("second"));
+        });
+        awaitQueued(1);
+        releaseFirstBatch.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertThat(flushContexts).containsExactly("first", "second");
+    }
+
+    @Test
+    void testFullQueueRejectsCreates() throws Exception {
+        callers.submit(() -> batcher.insert(course("first")));
+        assertThat(firstBatchWriting.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 10; i++) {
+            callers.submit(() -> batcher.insert(course("queued")));
+        }
+        awaitQueued(10);
+
+        assertThatThrownBy(() -> batcher.insert(course("rejected")))
+                .isInstanceOf(CreateQueueFullException.class);
+        assertThat(meterRegistry.get("courses.create.batch.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testCallersGiveUpOnABatchThatIsNotWritten() throws Exception {
+        ReflectionTestUtils.setField(batcher, "writeTimeout", Duration.ofMillis(100));
+        Future<Course> writing = callers.submit(() -> batcher.insert(course("writing")));
+        assertThat(firstBatchWriting.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> batcher.insert(course("queued")))
+                .isInstanceOf(CreateQueueFullException.class)
+                .hasMessageContaining("not being written");
+        assertThatThrownBy(() -> writing.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(CreateQueueFullException.class)
+                .hasMessageContaining("may still be written");
+        releaseFirstBatch.countDown();
+    }
+
+    @Test
+    void testFlusherSurvivesABatchThatThrowsAnError() throws Exception {
+        releaseFirstBatch.countDown();
+        when(repository.bulkWrite(anyInt(), anyList(), eq(BulkMode.INSERT)))
+                .thenThrow(new StackOverflowError())
+                .thenAnswer(invocation -> {
+                    List<Course> courses = invocation.getArgument(1);
+                    courses.forEach(created -> created.setId(new ObjectId().toHexString()));
+                    return new BulkWriteReport.ChunkResult(0, courses.size(), courses.size(), 0, 0, 0, List.of());
+                });
+
+        Future<Course> failed = callers.submit(() -> batcher.insert(course("failed")));
+        assertThatThrownBy(() -> failed.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+
+        assertThat(batcher.insert(course("created")).getId()).isNotNull();
+    }
+
+    private void awaitQueued(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("courses.create.batch.queued").gauge().value() < expected) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static Course course(String title) {
+        return new Course(title, "description", true);
+    }
+}
@@ -0,0 +1,30 @@
+package com.springapp.mongodb.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseIndexHitsTest {
+
+    @Test
+    void testChunksAreBoundedAndKeepIndexOrder() {
+        List<String> ids = List.of("e", "a", "d", "b", "c");
+
+        assertThat(CourseIndexHits.chunks(ids, 2))
+                .containsExactly(List.of("e", "a"), List.of("d", "b"), List.of("c"));
+        assertThat(CourseIndexHits.chunks(List.of(), 2)).isEmpty();
+    }
+
+    @Test
+    void testFetchedChunkIsPutBackIntoIndexOrder() {
+        List<String> chunk = List.of("d", "b", "c");
+
+        // c was deleted after it was indexed; the $in answers in collection order
+        List<String> ordered = CourseIndexHits.inIndexOrder(chunk, List.of("b", "d"), Function.identity());
+
+        assertThat(ordered).containsExactly("d", "b");
+    }
+}
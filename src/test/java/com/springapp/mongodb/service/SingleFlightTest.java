@@ -0,0 +1,141 @@
+package com.springapp.mongodb.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger queries = new AtomicInteger();
+    // Keeps the first query in flight until released
+    private final CountDownLatch queryRunning = new CountDownLatch(1);
+    private final CountDownLatch releaseQuery = new CountDownLatch(1);
+    private SingleFlight singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        singleFlight = new SingleFlight(meterRegistry);
+        ReflectionTestUtils.setField(singleFlight, "enabled", true);
+        ReflectionTestUtils.setField(singleFlight, "followerTimeout", Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseQuery.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentIdenticalCallsShareOneQuery() throws Exception {
+        Future<String> leader = callers.submit(() -> singleFlight.execute("findById", List.of("1"), this::blockingQuery));
+        assertThat(queryRunning.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            followers.add(callers.submit(() -> singleFlight.execute("findById", List.of("1"), this::blockingQuery)));
+        }
+        awaitCoalesced(10);
+        releaseQuery.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("result 1");
+        for (Future<String> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("result 1");
+        }
+        assertThat(queries).hasValue(1);
+
+        // Nothing is kept once the query has returned
+        assertThat(singleFlight.execute("findById", List.of("1"), () -> "result " + queries.incrementAndGet()))
+                .isEqualTo("result 2");
+    }
+
+    @Test
+    void testDifferentOperationsAndArgumentsDoNotShare() {
+        assertThat(singleFlight.execute("findById", List.of("1"), () -> "a")).isEqualTo("a");
+        assertThat(singleFlight.execute("findById", List.of("2"), () -> "b")).isEqualTo("b");
+        assertThat(singleFlight.execute("findByTitleContaining", List.of("1"), () -> "c")).isEqualTo("c");
+        assertThat(meterRegistry.find("courses.single-flight.coalesced").counter()).isNull();
+    }
+
+    @Test
+    void testFailureReachesFollowersAndIsNotKept() throws Exception {
+        Future<String> leader = callers.submit(() -> singleFlight.execute("findById", List.of("1"), () -> {
+            blockingQuery();
+            throw new IllegalStateException("MongoDB unavailable");
+        }));
+        assertThat(queryRunning.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<String> follower = callers.submit(() -> singleFlight.execute("findById", List.of("1"), this::blockingQuery));
+        awaitCoalesced(1);
+        releaseQuery.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(singleFlight.execute("findById", List.of("1"), () -> "recovered")).isEqualTo("recovered");
+    }
+
+    @Test
+    void testFollowerRunsItsOwnQueryWhenTheLeaderIsCancelledOrSlow() throws Exception {
+        Future<String> leader = callers.submit(() -> singleFlight.execute("findById", List.of("1"), this::blockingQuery));
+        assertThat(queryRunning.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<String> follower = callers.submit(() -> singleFlight.execute("findById", List.of("1"), () -> "own query"));
+        awaitCoalesced(1);
+
+        leader.cancel(true);
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("own query");
+
+        ReflectionTestUtils.setField(singleFlight, "followerTimeout", Duration.ofMillis(50));
+        var stuck = new CountDownLatch(1);
+        callers.submit(() -> singleFlight.execute("findById", List.of("2"), () -> {
+            stuck.countDown();
+            return awaitRelease();
+        }));
+        assertThat(stuck.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(singleFlight.execute("findById", List.of("2"), () -> "own query")).isEqualTo("own query");
+    }
+
+    private String blockingQuery() {
+        int query = queries.incrementAndGet();
+        queryRunning.countDown();
+        awaitRelease();
+        return "result " + query;
+    }
+
+    private String awaitRelease() {
+        try {
+            releaseQuery.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Query interrupted");
+        }
+        return "released";
+    }
+
+    private void awaitCoalesced(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalesced() < expected) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private double coalesced() {
+        var counter = meterRegistry.find("courses.single-flight.coalesced").counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
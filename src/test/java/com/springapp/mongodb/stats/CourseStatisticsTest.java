@@ -0,0 +1,93 @@
+package com.springapp.mongodb.stats;
+
+import com.springapp.mongodb.model.Course;
+import com.springapp.mongodb.model.CourseStats;
+import com.springapp.mongodb.repository.CourseRepository;
+import com.springapp.mongodb.service.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseStatisticsTest {
+
+    private final CourseRepository repository = mock(CourseRepository.class);
+    private final TaskScheduler taskScheduler = mock(TaskScheduler.class);
+    private final CourseStatistics statistics = new CourseStatistics(repository, new SingleFlight(new SimpleMeterRegistry()),
+            taskScheduler);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(statistics, "prefixLength", 1);
+        ReflectionTestUtils.setField(statistics, "reconcileInterval", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(statistics, "reconcileDelay", Duration.ofSeconds(2));
+        when(repository.aggregateStats(1)).thenReturn(
+                new CourseStats(2, 1, 1, Map.of("D", 1L, "S", 1L), Instant.now()));
+        statistics.reconcile();
+    }
+
+    @Test
+    void testUpdatesMoveTheCourseBetweenCounts() {
+        statistics.recordUpdated(new Course("Spring Boot 4", "Desc", false), new Course("Docker", "Desc", true));
+
+        CourseStats stats = statistics.current();
+        assertThat(stats.total()).isEqualTo(2);
+        assertThat(stats.published()).isEqualTo(2);
+        assertThat(stats.unpublished()).isZero();
+        assertThat(stats.titlePrefixes()).containsExactly(entry("D", 2L));
+    }
+
+    @Test
+    void testKnownWritesDoNotRunTheAggregation() {
+        Course created = new Course("Kafka", "Desc", true);
+        statistics.recordCreated(created);
+        statistics.recordUpdated(created, new Course("Kafka Streams", "Other", true));
+        statistics.recordDeleted(new Course("Docker", "Desc", false));
+
+        CourseStats stats = statistics.current();
+        assertThat(stats.total()).isEqualTo(2);
+        assertThat(stats.titlePrefixes()).containsExactly(entry("K", 1L), entry("S", 1L));
+        verify(repository, times(1)).aggregateStats(1);
+    }
+
+    @Test
+    void testWritesDuringTheAggregationScheduleAnotherReconciliation() {
+        when(taskScheduler.scheduleWithFixedDelay(any(Runnable.class), any(Duration.class)))
+                .thenReturn(mock(ScheduledFuture.class));
+        statistics.start();
+        when(repository.aggregateStats(1)).thenAnswer(invocation -> {
+            statistics.recordCreated(new Course("Kafka", "Desc", true));
+            return new CourseStats(2, 1, 1, Map.of("D", 1L, "S", 1L), Instant.now());
+        });
+
+        statistics.reconcile();
+
+        verify(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void testQuietReconciliationSchedulesNothing() {
+        when(taskScheduler.scheduleWithFixedDelay(any(Runnable.class), any(Duration.class)))
+                .thenReturn(mock(ScheduledFuture.class));
+        statistics.start();
+
+        statistics.reconcile();
+
+        verify(taskScheduler, never()).schedule(any(Runnable.class), any(Instant.class));
+    }
+}